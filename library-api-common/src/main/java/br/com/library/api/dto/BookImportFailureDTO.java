@@ -0,0 +1,17 @@
+package br.com.library.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BookImportFailureDTO {
+
+    private int index;
+    private String isbn;
+    private String reason;
+}
@@ -0,0 +1,19 @@
+package br.com.library.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BookImportResultDTO {
+
+    private int received;
+    private int imported;
+    private List<BookImportFailureDTO> failures;
+}
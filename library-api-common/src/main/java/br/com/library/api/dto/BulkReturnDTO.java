@@ -0,0 +1,18 @@
+package br.com.library.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkReturnDTO {
+
+    private List<Long> ids;
+    private List<String> isbns;
+}
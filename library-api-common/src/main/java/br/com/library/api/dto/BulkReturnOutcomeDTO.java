@@ -0,0 +1,19 @@
+package br.com.library.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkReturnOutcomeDTO {
+
+    public enum Status { RETURNED, ALREADY_RETURNED, NOT_FOUND, NOT_LOANED }
+
+    private Long id;
+    private String isbn;
+    private Status status;
+}
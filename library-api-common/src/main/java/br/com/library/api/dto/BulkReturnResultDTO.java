@@ -0,0 +1,19 @@
+package br.com.library.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkReturnResultDTO {
+
+    private int requested;
+    private int returned;
+    private List<BulkReturnOutcomeDTO> outcomes;
+}
@@ -0,0 +1,21 @@
+package br.com.library.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class CustomerSummaryDTO {
+
+    private Long id;
+    private String name;
+    private long activeLoans;
+    private long totalLoans;
+    private LocalDate lastLoanDate;
+}
@@ -24,6 +24,10 @@ public class ApiErrors {
         this.errors = Arrays.asList(args.getReason());
     }
 
+    public ApiErrors(String message) {
+        this.errors = Arrays.asList(message);
+    }
+
     public List<String> getErrors() {
         return this.errors;
     }
@@ -0,0 +1,43 @@
+package br.com.library.api.model;
+
+import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import javax.persistence.*;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Book.CACHE_REGION)
+@Table(name = "Book", uniqueConstraints = @UniqueConstraint(name = "UK_BOOK_ISBN", columnNames = "BOOK_ISBN"))
+public class Book {
+
+    public static final String CACHE_REGION = "book";
+
+    @Id
+    @Column(name = "BOOK_ID")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "BOOK_SEQ", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "BOOK_TITLE")
+    private String title;
+
+    @Column(name = "BOOK_AUTHOR")
+    private String author;
+
+    @Column(name = "BOOK_ISBN")
+    private String isbn;
+
+    @Version
+    @Column(name = "BOOK_VERSION")
+    private Long version;
+
+    @OneToMany(mappedBy = "book", fetch = FetchType.LAZY)
+    List<Loan> loans;
+}
@@ -0,0 +1,40 @@
+package br.com.library.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+/**
+ * A borrower, identified by name. The loan aggregates are kept on the row by set-based updates as loans are made and
+ * returned, never through the entity, so they are not versioned.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "Customer", uniqueConstraints = @UniqueConstraint(name = "UK_CUSTOMER_NAME", columnNames = "CUSTOMER_NAME"))
+public class Customer {
+
+    @Id
+    @Column(name = "CUSTOMER_ID")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
+    @SequenceGenerator(name = "customer_seq", sequenceName = "CUSTOMER_SEQ", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "CUSTOMER_NAME")
+    private String name;
+
+    @Column(name = "CUSTOMER_ACTIVE_LOANS")
+    private long activeLoans;
+
+    @Column(name = "CUSTOMER_TOTAL_LOANS")
+    private long totalLoans;
+
+    @Column(name = "CUSTOMER_LAST_LOAN_DATE")
+    private LocalDate lastLoanDate;
+}
@@ -0,0 +1,46 @@
+package br.com.library.api.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "Loan", indexes = {@Index(name = "IDX_LOAN_CUSTOMER_RETURNED", columnList = "CUSTOMER_ID, LOAN_RETURNED"),
+        @Index(name = "IDX_LOAN_BOOK_RETURNED", columnList = "BOOK_ID, LOAN_RETURNED")})
+public class Loan {
+
+    @Id
+    @Column(name = "LOAN_ID")
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "loan_seq")
+    @SequenceGenerator(name = "loan_seq", sequenceName = "LOAN_SEQ", allocationSize = 50)
+    private Long id;
+
+    @JoinColumn(name = "CUSTOMER_ID")
+    @ManyToOne
+    private Customer customer;
+
+    @JoinColumn(name = "BOOK_ID")
+    @ManyToOne
+    private Book book;
+
+    @Column(name = "LOAN_DATE")
+    private LocalDate loanDate;
+
+    @Column(name = "LOAN_RETURNED")
+    private boolean returned;
+
+    @Column(name = "LOAN_OVERDUE")
+    private boolean overdue;
+
+    @Version
+    @Column(name = "LOAN_VERSION")
+    private Long version;
+}
@@ -0,0 +1,25 @@
+create sequence BOOK_SEQ start with 1 increment by 50;
+create sequence LOAN_SEQ start with 1 increment by 50;
+
+create table BOOK (
+    BOOK_ID     bigint       not null,
+    BOOK_TITLE  varchar(255),
+    BOOK_AUTHOR varchar(255),
+    BOOK_ISBN   varchar(255),
+    constraint PK_BOOK primary key (BOOK_ID),
+    constraint UK_BOOK_ISBN unique (BOOK_ISBN)
+);
+
+create table LOAN (
+    LOAN_ID       bigint       not null,
+    LOAN_CUSTOMER varchar(255),
+    BOOK_ID       bigint,
+    LOAN_DATE     date,
+    LOAN_RETURNED boolean      not null,
+    LOAN_OVERDUE  boolean      not null,
+    constraint PK_LOAN primary key (LOAN_ID),
+    constraint FK_LOAN_BOOK foreign key (BOOK_ID) references BOOK (BOOK_ID)
+);
+
+create index IDX_LOAN_CUSTOMER on LOAN (LOAN_CUSTOMER);
+create index IDX_LOAN_BOOK_RETURNED on LOAN (BOOK_ID, LOAN_RETURNED);
@@ -0,0 +1,2 @@
+alter table BOOK add column BOOK_VERSION bigint default 0 not null;
+alter table LOAN add column LOAN_VERSION bigint default 0 not null;
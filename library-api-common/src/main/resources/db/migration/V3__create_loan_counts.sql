@@ -0,0 +1,18 @@
+create table BOOK_LOAN_COUNT (
+    BOOK_ID    bigint not null,
+    LOAN_COUNT bigint not null,
+    constraint PK_BOOK_LOAN_COUNT primary key (BOOK_ID)
+);
+
+create table BOOK_DAILY_LOAN_COUNT (
+    LOAN_DATE  date   not null,
+    BOOK_ID    bigint not null,
+    LOAN_COUNT bigint not null,
+    constraint PK_BOOK_DAILY_LOAN_COUNT primary key (LOAN_DATE, BOOK_ID)
+);
+
+insert into BOOK_LOAN_COUNT (BOOK_ID, LOAN_COUNT)
+select BOOK_ID, count(*) from LOAN where BOOK_ID is not null group by BOOK_ID;
+
+insert into BOOK_DAILY_LOAN_COUNT (LOAN_DATE, BOOK_ID, LOAN_COUNT)
+select LOAN_DATE, BOOK_ID, count(*) from LOAN where BOOK_ID is not null and LOAN_DATE is not null group by LOAN_DATE, BOOK_ID;
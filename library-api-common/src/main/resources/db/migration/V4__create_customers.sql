@@ -0,0 +1,32 @@
+create sequence CUSTOMER_SEQ start with 1 increment by 50;
+
+create table CUSTOMER (
+    CUSTOMER_ID             bigint       not null,
+    CUSTOMER_NAME           varchar(255) not null,
+    CUSTOMER_ACTIVE_LOANS   bigint       default 0 not null,
+    CUSTOMER_TOTAL_LOANS    bigint       default 0 not null,
+    CUSTOMER_LAST_LOAN_DATE date,
+    constraint PK_CUSTOMER primary key (CUSTOMER_ID),
+    constraint UK_CUSTOMER_NAME unique (CUSTOMER_NAME)
+);
+
+-- one customer per distinct name the loans were taken under, with its aggregates as of now
+insert into CUSTOMER (CUSTOMER_ID, CUSTOMER_NAME, CUSTOMER_ACTIVE_LOANS, CUSTOMER_TOTAL_LOANS, CUSTOMER_LAST_LOAN_DATE)
+select next value for CUSTOMER_SEQ, NAME, ACTIVE_LOANS, TOTAL_LOANS, LAST_LOAN_DATE
+from (select LOAN_CUSTOMER as NAME,
+             sum(case when LOAN_RETURNED then 0 else 1 end) as ACTIVE_LOANS,
+             count(*) as TOTAL_LOANS,
+             max(LOAN_DATE) as LAST_LOAN_DATE
+      from LOAN where LOAN_CUSTOMER is not null group by LOAN_CUSTOMER);
+
+alter table LOAN add column CUSTOMER_ID bigint;
+
+update LOAN set CUSTOMER_ID = (select c.CUSTOMER_ID from CUSTOMER c where c.CUSTOMER_NAME = LOAN.LOAN_CUSTOMER);
+
+drop index IDX_LOAN_CUSTOMER;
+
+alter table LOAN drop column LOAN_CUSTOMER;
+
+create index IDX_LOAN_CUSTOMER_RETURNED on LOAN (CUSTOMER_ID, LOAN_RETURNED);
+
+alter table LOAN add constraint FK_LOAN_CUSTOMER foreign key (CUSTOMER_ID) references CUSTOMER (CUSTOMER_ID);
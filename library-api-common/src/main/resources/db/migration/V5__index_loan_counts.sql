@@ -0,0 +1 @@
+create index IDX_BOOK_LOAN_COUNT_LOANS on BOOK_LOAN_COUNT (LOAN_COUNT desc, BOOK_ID);
@@ -1,26 +1,21 @@
-package br.com.library.api.controller;
+package br.com.library.api.reactive;
 
 import br.com.library.api.exception.ApiErrors;
 import br.com.library.api.exception.BusinessException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.validation.BindingResult;
-import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.server.ResponseStatusException;
 
+/**
+ * The error bodies and status codes of the MVC application, for the errors the harness endpoints raise.
+ */
 @RestControllerAdvice
 public class ApplicationControllerAdvice {
 
-    @ExceptionHandler(MethodArgumentNotValidException.class)
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
-    public ApiErrors handleValidationException(MethodArgumentNotValidException args) {
-        BindingResult bindingResult = args.getBindingResult();
-        return new ApiErrors(bindingResult);
-    }
-
     @ExceptionHandler(BusinessException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ApiErrors handleBusinessException(BusinessException args) {
@@ -28,8 +23,13 @@ public class ApplicationControllerAdvice {
     }
 
     @ExceptionHandler(ResponseStatusException.class)
-    @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ResponseEntity<ApiErrors> handleResponseStatusException(ResponseStatusException args) {
         return new ResponseEntity<>(new ApiErrors(args), args.getStatus());
     }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ApiErrors handleOptimisticLockingFailure(OptimisticLockingFailureException args) {
+        return new ApiErrors("The resource was changed by another request");
+    }
 }
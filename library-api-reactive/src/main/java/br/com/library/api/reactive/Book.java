@@ -0,0 +1,30 @@
+package br.com.library.api.reactive;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table("BOOK")
+public class Book {
+
+    @Id
+    @Column("BOOK_ID")
+    private Long id;
+
+    @Column("BOOK_TITLE")
+    private String title;
+
+    @Column("BOOK_AUTHOR")
+    private String author;
+
+    @Column("BOOK_ISBN")
+    private String isbn;
+}
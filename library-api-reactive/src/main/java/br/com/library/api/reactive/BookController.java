@@ -0,0 +1,84 @@
+package br.com.library.api.reactive;
+
+import br.com.library.api.dto.BookDTO;
+import br.com.library.api.dto.BookImportFailureDTO;
+import br.com.library.api.dto.BookImportResultDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(path = "/api/books")
+public class BookController {
+
+    @Autowired
+    private R2dbcEntityTemplate template;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @PostMapping("/import")
+    public Mono<BookImportResultDTO> importBooks(@RequestBody List<BookDTO> dtos) {
+        return Flux.range(0, dtos.size())
+                .concatMap(index -> insert(dtos.get(index))
+                        .then(Mono.<BookImportFailureDTO>empty())
+                        .onErrorResume(DataAccessException.class, e -> Mono.just(new BookImportFailureDTO(index,
+                                dtos.get(index).getIsbn(), e.getMostSpecificCause().getMessage()))))
+                .collectList()
+                .map(failures -> new BookImportResultDTO(dtos.size(), dtos.size() - failures.size(), failures));
+    }
+
+    @GetMapping
+    public Mono<Page<BookDTO>> find(BookDTO dto, Pageable pageRequest) {
+        Criteria criteria = criteria(dto);
+        Mono<List<BookDTO>> content = template.select(Book.class)
+                .matching(Query.query(criteria).with(pageRequest))
+                .all()
+                .map(book -> new BookDTO(book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn()))
+                .collectList();
+        Mono<Long> total = template.count(Query.query(criteria), Book.class);
+        return Mono.zip(content, total, (books, count) -> new PageImpl<>(books, pageRequest, count));
+    }
+
+    // R2DBC has no sequence generator, the id comes from the same sequence Hibernate draws from
+    private Mono<Void> insert(BookDTO dto) {
+        return databaseClient.sql("insert into BOOK (BOOK_ID, BOOK_TITLE, BOOK_AUTHOR, BOOK_ISBN)" +
+                        " values (next value for BOOK_SEQ, :title, :author, :isbn)")
+                .bind("title", dto.getTitle())
+                .bind("author", dto.getAuthor())
+                .bind("isbn", dto.getIsbn())
+                .then();
+    }
+
+    private Criteria criteria(BookDTO filter) {
+        Criteria criteria = Criteria.empty();
+        if (filter.getId() != null) {
+            criteria = criteria.and("id").is(filter.getId());
+        }
+        if (filter.getTitle() != null) {
+            criteria = criteria.and(Criteria.where("title").like(containing(filter.getTitle())).ignoreCase(true));
+        }
+        if (filter.getAuthor() != null) {
+            criteria = criteria.and(Criteria.where("author").like(containing(filter.getAuthor())).ignoreCase(true));
+        }
+        if (filter.getIsbn() != null) {
+            criteria = criteria.and(Criteria.where("isbn").like(containing(filter.getIsbn())).ignoreCase(true));
+        }
+        return criteria;
+    }
+
+    private String containing(String value) {
+        return "%" + value + "%";
+    }
+}
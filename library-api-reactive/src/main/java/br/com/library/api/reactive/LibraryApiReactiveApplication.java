@@ -0,0 +1,20 @@
+package br.com.library.api.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Benchmark harness serving the book and loan endpoints of the library API on WebFlux and R2DBC, to compare with the
+ * MVC controllers under {@code LoadComparison}. It shares the DTOs, error bodies and Flyway migrations of
+ * {@code library-api-common} and serves only what the comparison calls: {@code POST /api/books/import} to seed the
+ * catalog, {@code GET /api/books} to search it, and {@code POST}, {@code PATCH} and {@code GET /api/loans} to lend,
+ * return and search loans.
+ */
+@SpringBootApplication
+public class LibraryApiReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(LibraryApiReactiveApplication.class, args);
+	}
+
+}
@@ -0,0 +1,43 @@
+package br.com.library.api.reactive;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table("LOAN")
+public class Loan {
+
+    @Id
+    @Column("LOAN_ID")
+    private Long id;
+
+    @Column("CUSTOMER_ID")
+    private Long customerId;
+
+    @Column("BOOK_ID")
+    private Long bookId;
+
+    @Column("LOAN_DATE")
+    private LocalDate loanDate;
+
+    @Column("LOAN_RETURNED")
+    private boolean returned;
+
+    @Column("LOAN_OVERDUE")
+    private boolean overdue;
+
+    @Version
+    @Column("LOAN_VERSION")
+    private Long version;
+}
@@ -0,0 +1,180 @@
+package br.com.library.api.reactive;
+
+import br.com.library.api.dto.BookDTO;
+import br.com.library.api.dto.LoanDTO;
+import br.com.library.api.dto.LoanFilterDTO;
+import br.com.library.api.dto.ReturnedLoadDTO;
+import br.com.library.api.exception.BusinessException;
+import io.r2dbc.spi.Row;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.http.HttpStatus;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The loan endpoints {@code LoadComparison} drives, with the rules of the MVC application: one active loan per book,
+ * customers registered by name on their first loan and their loan aggregates kept on the row. Loans of the same book
+ * are kept apart by a reservation that fails fast where the MVC application waits on a lock; like that lock, it only
+ * covers this instance. Listings are ordered by loan id.
+ */
+@RestController
+@RequestMapping("/api/loans")
+public class LoanController {
+
+    private static final String LOAN_COLUMNS = "select l.LOAN_ID, b.BOOK_ID, b.BOOK_TITLE, b.BOOK_AUTHOR, b.BOOK_ISBN,"
+            + " c.CUSTOMER_NAME";
+
+    private static final String LOAN_SEARCH = " from LOAN l join BOOK b on b.BOOK_ID = l.BOOK_ID"
+            + " left join CUSTOMER c on c.CUSTOMER_ID = l.CUSTOMER_ID where b.BOOK_ISBN = :isbn or c.CUSTOMER_NAME = :customer";
+
+    @Autowired
+    private R2dbcEntityTemplate template;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    private final Set<Long> lending = ConcurrentHashMap.newKeySet();
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Long> create(@RequestBody LoanDTO dto) {
+        return template.selectOne(Query.query(Criteria.where("isbn").is(dto.getIsbn())), Book.class)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Book not found for passed ISBN")))
+                .flatMap(book -> exclusively(book.getId(), lend(book.getId(), dto.getCustomer())));
+    }
+
+    @PatchMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<Void> returnBook(@PathVariable Long id, @RequestBody ReturnedLoadDTO dto) {
+        return template.selectOne(Query.query(Criteria.where("id").is(id)), Loan.class)
+                .switchIfEmpty(Mono.error(() -> new ResponseStatusException(HttpStatus.NOT_FOUND)))
+                .flatMap(loan -> exclusively(loan.getBookId(), update(loan, dto.getReturned())))
+                .then();
+    }
+
+    @GetMapping
+    public Mono<Page<LoanDTO>> find(LoanFilterDTO dto, Pageable pageRequest) {
+        Mono<List<LoanDTO>> content = bindFilter(databaseClient.sql(LOAN_COLUMNS + LOAN_SEARCH
+                        + " order by l.LOAN_ID limit :size offset :offset"), dto)
+                .bind("size", pageRequest.getPageSize())
+                .bind("offset", pageRequest.getOffset())
+                .map((row, metadata) -> toDto(row))
+                .all()
+                .collectList();
+        Mono<Long> total = bindFilter(databaseClient.sql("select count(*)" + LOAN_SEARCH), dto)
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one();
+        return Mono.zip(content, total, (loans, count) -> new PageImpl<>(loans, pageRequest, count));
+    }
+
+    private Mono<Long> lend(Long bookId, String customer) {
+        LocalDate loanDate = LocalDate.now();
+        Mono<Long> customerId = customer == null ? Mono.empty() : customerId(customer);
+        return activeLoan(bookId)
+                .flatMap(active -> Mono.<Long>error(new BusinessException("Book already loaned")))
+                .switchIfEmpty(Mono.defer(() -> customerId
+                        .flatMap(id -> loanMade(id, loanDate).thenReturn(id))
+                        .map(id -> Loan.builder().customerId(id))
+                        .defaultIfEmpty(Loan.builder())
+                        .zipWith(nextValue("LOAN_SEQ"), (loan, id) -> loan.id(id).bookId(bookId).loanDate(loanDate).build())
+                        .flatMap(template::insert)
+                        .map(Loan::getId)))
+                .as(transactionalOperator::transactional);
+    }
+
+    private Mono<Loan> update(Loan loan, boolean returned) {
+        Mono<Void> check = returned ? Mono.empty() : activeLoan(loan.getBookId())
+                .filter(active -> !active.equals(loan.getId()))
+                .flatMap(active -> Mono.<Void>error(new BusinessException("Book already loaned")));
+        loan.setReturned(returned);
+        return check
+                .then(template.update(loan))
+                .flatMap(updated -> updated.getCustomerId() == null ? Mono.just(updated)
+                        : recountActiveLoans(updated.getCustomerId()).thenReturn(updated))
+                .as(transactionalOperator::transactional);
+    }
+
+    // released before the result goes out, or the client's next request on the book could still find it taken
+    private <T> Mono<T> exclusively(Long bookId, Mono<T> work) {
+        return Mono.defer(() -> lending.add(bookId)
+                ? work.doOnSuccess(result -> lending.remove(bookId))
+                        .doOnError(e -> lending.remove(bookId))
+                        .doOnCancel(() -> lending.remove(bookId))
+                : Mono.error(new BusinessException("Book already loaned")));
+    }
+
+    private Mono<Long> activeLoan(Long bookId) {
+        return databaseClient.sql("select LOAN_ID from LOAN where BOOK_ID = :bookId and LOAN_RETURNED = false")
+                .bind("bookId", bookId)
+                .map((row, metadata) -> row.get(0, Long.class))
+                .first();
+    }
+
+    private Mono<Long> customerId(String name) {
+        Mono<Long> existing = databaseClient.sql("select CUSTOMER_ID from CUSTOMER where CUSTOMER_NAME = :name")
+                .bind("name", name)
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one();
+        return existing.switchIfEmpty(Mono.defer(() -> nextValue("CUSTOMER_SEQ")
+                .flatMap(id -> databaseClient.sql("insert into CUSTOMER (CUSTOMER_ID, CUSTOMER_NAME) values (:id, :name)")
+                        .bind("id", id)
+                        .bind("name", name)
+                        .then()
+                        .thenReturn(id))
+                .onErrorResume(DataIntegrityViolationException.class, e -> existing)));
+    }
+
+    private Mono<Void> loanMade(Long customerId, LocalDate loanDate) {
+        return databaseClient.sql("update CUSTOMER set CUSTOMER_ACTIVE_LOANS = CUSTOMER_ACTIVE_LOANS + 1,"
+                        + " CUSTOMER_TOTAL_LOANS = CUSTOMER_TOTAL_LOANS + 1,"
+                        + " CUSTOMER_LAST_LOAN_DATE = case when CUSTOMER_LAST_LOAN_DATE is null"
+                        + " or CUSTOMER_LAST_LOAN_DATE < :loanDate then :loanDate else CUSTOMER_LAST_LOAN_DATE end"
+                        + " where CUSTOMER_ID = :id")
+                .bind("id", customerId)
+                .bind("loanDate", loanDate)
+                .then();
+    }
+
+    private Mono<Void> recountActiveLoans(Long customerId) {
+        return databaseClient.sql("update CUSTOMER set CUSTOMER_ACTIVE_LOANS = (select count(*) from LOAN"
+                        + " where LOAN.CUSTOMER_ID = CUSTOMER.CUSTOMER_ID and LOAN_RETURNED = false) where CUSTOMER_ID = :id")
+                .bind("id", customerId)
+                .then();
+    }
+
+    // R2DBC has no sequence generator, the ids come from the same sequences Hibernate draws from
+    private Mono<Long> nextValue(String sequence) {
+        return databaseClient.sql("select next value for " + sequence)
+                .map((row, metadata) -> row.get(0, Long.class))
+                .one();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindFilter(DatabaseClient.GenericExecuteSpec spec, LoanFilterDTO filter) {
+        spec = filter.getIsbn() == null ? spec.bindNull("isbn", String.class) : spec.bind("isbn", filter.getIsbn());
+        return filter.getCustomer() == null ? spec.bindNull("customer", String.class) : spec.bind("customer", filter.getCustomer());
+    }
+
+    private static LoanDTO toDto(Row row) {
+        BookDTO book = new BookDTO(row.get("BOOK_ID", Long.class), row.get("BOOK_TITLE", String.class),
+                row.get("BOOK_AUTHOR", String.class), row.get("BOOK_ISBN", String.class));
+        return new LoanDTO(row.get("LOAN_ID", Long.class), null, row.get("CUSTOMER_NAME", String.class), book);
+    }
+}
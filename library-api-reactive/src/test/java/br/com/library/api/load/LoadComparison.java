@@ -0,0 +1,220 @@
+package br.com.library.api.load;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Holds a fixed number of connections busy against each running API and reports what they got through.
+ * <p>
+ * Every connection sends its next request as soon as the previous one answers, for the whole run, so the number of
+ * connections is the number of requests in flight. The client is non-blocking itself, so it can keep thousands of
+ * connections open from one JVM. Each target is seeded with {@code books} books, the even ones on loan to one customer,
+ * and then run through the scenarios:
+ * <ul>
+ *     <li>{@code book-search}: {@code GET /api/books?author=martin}</li>
+ *     <li>{@code loan-search}: {@code GET /api/loans?customer=...}, the seeded customer's loans</li>
+ *     <li>{@code loan-create}: {@code POST /api/loans} for an odd book no other connection holds, then {@code PATCH} to
+ *     return it, as one request of the run; it needs at least as many odd books as connections, the rest are reported
+ *     as errors</li>
+ * </ul>
+ * <pre>
+ * java -cp ... br.com.library.api.load.LoadComparison \
+ *     targets=mvc=http://localhost:8080,reactive=http://localhost:8081 \
+ *     concurrency=50,500,2000 seconds=20 books=4000 scenarios=book-search,loan-search,loan-create
+ * </pre>
+ */
+public class LoadComparison {
+
+    static final String CUSTOMER = "load-customer";
+
+    // the MVC application sheds load with 503 once its admission limit is reached, seeding waits for it
+    static final Retry WHILE_REJECTED = Retry.backoff(20, Duration.ofMillis(100))
+            .filter(e -> e instanceof WebClientResponseException.ServiceUnavailable);
+
+    public static void main(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        options.put("targets", "mvc=http://localhost:8080,reactive=http://localhost:8081");
+        options.put("concurrency", "50,500,2000");
+        options.put("seconds", "20");
+        options.put("books", "4000");
+        options.put("scenarios", "book-search,loan-search,loan-create");
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        Map<String, String> targets = new LinkedHashMap<>();
+        for (String target : options.get("targets").split(",")) {
+            String[] nameAndUrl = target.split("=", 2);
+            targets.put(nameAndUrl[0], nameAndUrl[1]);
+        }
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.get("seconds")));
+        int books = Integer.parseInt(options.get("books"));
+        Map<String, Function<WebClient, Mono<?>>> scenarios = scenarios(books);
+
+        targets.forEach((name, url) -> seed(url, books));
+
+        System.out.printf("%-12s %-10s %11s %10s %10s %10s %10s %8s%n",
+                "scenario", "target", "connections", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for (String scenario : options.get("scenarios").split(",")) {
+            if (!scenarios.containsKey(scenario)) {
+                throw new IllegalArgumentException("Unknown scenario " + scenario + ", expected one of " + scenarios.keySet());
+            }
+            for (String concurrency : options.get("concurrency").split(",")) {
+                for (Map.Entry<String, String> target : targets.entrySet()) {
+                    Result result = run(target.getValue(), scenarios.get(scenario), Integer.parseInt(concurrency), duration);
+                    System.out.printf("%-12s %-10s %11s %10.0f %10.1f %10.1f %10.1f %8d%n", scenario, target.getKey(),
+                            concurrency, result.throughput(), result.percentile(0.50), result.percentile(0.99),
+                            result.percentile(1.0), result.errors);
+                }
+            }
+        }
+    }
+
+    static Map<String, Function<WebClient, Mono<?>>> scenarios(int books) {
+        Queue<Integer> unloaned = new ConcurrentLinkedQueue<>();
+        for (int book = 1; book < books; book += 2) {
+            unloaned.add(book);
+        }
+        Map<String, Function<WebClient, Mono<?>>> scenarios = new LinkedHashMap<>();
+        scenarios.put("book-search", client -> client.get().uri("/api/books?author=martin")
+                .retrieve().toBodilessEntity());
+        scenarios.put("loan-search", client -> client.get().uri("/api/loans?customer={customer}", CUSTOMER)
+                .retrieve().toBodilessEntity());
+        scenarios.put("loan-create", client -> Mono.defer(() -> {
+            Integer book = unloaned.poll();
+            if (book == null) {
+                return Mono.error(new IllegalStateException("Every unloaned book is taken, seed more books"));
+            }
+            return client.post().uri("/api/loans")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(loan(book))
+                    .retrieve()
+                    .bodyToMono(Long.class)
+                    .flatMap(id -> client.patch().uri("/api/loans/{id}", id)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .bodyValue(Collections.singletonMap("returned", true))
+                            .retrieve()
+                            .toBodilessEntity())
+                    .doFinally(signal -> unloaned.add(book));
+        }));
+        return scenarios;
+    }
+
+    static void seed(String baseUrl, int books) {
+        List<Map<String, String>> catalog = new ArrayList<>();
+        for (int i = 0; i < books; i++) {
+            Map<String, String> book = new LinkedHashMap<>();
+            book.put("title", "Book " + i);
+            book.put("author", i % 2 == 0 ? "Robert C. Martin" : "Martin Fowler");
+            book.put("isbn", "load-" + i);
+            catalog.add(book);
+        }
+        WebClient.create(baseUrl).post().uri("/api/books/import")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(catalog)
+                .retrieve()
+                .toBodilessEntity()
+                .retryWhen(WHILE_REJECTED)
+                .block(Duration.ofMinutes(1));
+
+        WebClient client = WebClient.create(baseUrl);
+        Function<Integer, Mono<?>> lend = index -> client.post().uri("/api/loans")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(loan(2 * index))
+                .retrieve()
+                .toBodilessEntity()
+                .retryWhen(WHILE_REJECTED)
+                // on loan since an earlier run against the same instance
+                .onErrorResume(WebClientResponseException.BadRequest.class, e -> Mono.empty());
+        // the first loan registers the customer, so the others do not race to create it
+        lend.apply(0)
+                .thenMany(Flux.range(1, (books + 1) / 2 - 1).flatMap(lend, 16))
+                .blockLast(Duration.ofMinutes(5));
+    }
+
+    static Map<String, String> loan(int book) {
+        Map<String, String> loan = new LinkedHashMap<>();
+        loan.put("isbn", "load-" + book);
+        loan.put("customer", CUSTOMER);
+        return loan;
+    }
+
+    static Result run(String baseUrl, Function<WebClient, Mono<?>> scenario, int connections, Duration duration) {
+        ConnectionProvider provider = ConnectionProvider.builder("load-" + connections)
+                .maxConnections(connections)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        WebClient client = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(provider).responseTimeout(Duration.ofSeconds(30))))
+                .build();
+
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong errors = new AtomicLong();
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+
+        Mono<Void> request = Mono.defer(() -> {
+            long sent = System.nanoTime();
+            return scenario.apply(client)
+                    .doOnSuccess(response -> latencies.add(System.nanoTime() - sent))
+                    .doOnError(e -> errors.incrementAndGet())
+                    .onErrorResume(e -> Mono.empty())
+                    .then();
+        });
+        Flux.range(0, connections)
+                .flatMap(connection -> request.repeat(() -> System.nanoTime() < end), connections)
+                .blockLast();
+
+        long elapsed = System.nanoTime() - start;
+        provider.disposeLater().block();
+        return new Result(latencies, errors.get(), elapsed);
+    }
+
+    static class Result {
+
+        final long[] latencies;
+        final long errors;
+        final long nanos;
+
+        Result(ConcurrentLinkedQueue<Long> latencies, long errors, long nanos) {
+            this.latencies = latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(this.latencies);
+            this.errors = errors;
+            this.nanos = nanos;
+        }
+
+        double throughput() {
+            return latencies.length * 1e9 / nanos;
+        }
+
+        double percentile(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
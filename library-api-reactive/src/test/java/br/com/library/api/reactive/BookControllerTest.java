@@ -0,0 +1,47 @@
+package br.com.library.api.reactive;
+
+import br.com.library.api.dto.BookDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Arrays;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class BookControllerTest {
+
+    private static String BOOK_API = "/api/books";
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Test
+    @DisplayName("must import books into the shared schema and search them like the MVC listing")
+    void testImportAndFind() {
+        webTestClient.post().uri(BOOK_API + "/import").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Arrays.asList(
+                        new BookDTO(null, "Clean Code", "Robert C. Martin", "001"),
+                        new BookDTO(null, "Refactoring", "Martin Fowler", "002"),
+                        new BookDTO(null, "Domain-Driven Design", "Eric Evans", "003"),
+                        new BookDTO(null, "Clean Code", "Robert C. Martin", "001")))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("received").isEqualTo(4)
+                .jsonPath("imported").isEqualTo(3)
+                .jsonPath("failures[0].index").isEqualTo(3);
+
+        webTestClient.get().uri(BOOK_API + "?author=martin&sort=isbn&size=1").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("content.length()").isEqualTo(1)
+                .jsonPath("content[0].title").isEqualTo("Clean Code")
+                .jsonPath("totalElements").isEqualTo(2);
+    }
+}
@@ -0,0 +1,84 @@
+package br.com.library.api.reactive;
+
+import br.com.library.api.dto.BookDTO;
+import br.com.library.api.dto.LoanDTO;
+import br.com.library.api.dto.ReturnedLoadDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class LoanControllerTest {
+
+    private static String LOAN_API = "/api/loans";
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Test
+    @DisplayName("must lend, search and return loans under the rules of the MVC application")
+    void testLendFindAndReturn() {
+        webTestClient.post().uri("/api/books/import").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Arrays.asList(
+                        new BookDTO(null, "Test Driven Development", "Kent Beck", "loan-001"),
+                        new BookDTO(null, "Extreme Programming Explained", "Kent Beck", "loan-002")))
+                .exchange()
+                .expectStatus().isOk();
+
+        Long id = lend("loan-001", "Fulano").expectStatus().isCreated()
+                .expectBody(Long.class).returnResult().getResponseBody();
+        lend("loan-002", "Fulano").expectStatus().isCreated();
+        lend("loan-001", "Ciclano").expectStatus().isBadRequest()
+                .expectBody().jsonPath("errors[0]").isEqualTo("Book already loaned");
+        lend("unknown", "Fulano").expectStatus().isBadRequest()
+                .expectBody().jsonPath("errors[0]").isEqualTo("Book not found for passed ISBN");
+
+        webTestClient.get().uri(LOAN_API + "?customer=Fulano&size=1").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("content.length()").isEqualTo(1)
+                .jsonPath("content[0].id").isEqualTo(id)
+                .jsonPath("content[0].customer").isEqualTo("Fulano")
+                .jsonPath("content[0].book.isbn").isEqualTo("loan-001")
+                .jsonPath("totalElements").isEqualTo(2);
+
+        webTestClient.patch().uri(LOAN_API + "/" + id).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ReturnedLoadDTO(true))
+                .exchange()
+                .expectStatus().isOk();
+        Long next = lend("loan-001", "Ciclano").expectStatus().isCreated()
+                .expectBody(Long.class).returnResult().getResponseBody();
+        assertThat(next).isNotEqualTo(id);
+
+        webTestClient.patch().uri(LOAN_API + "/" + id).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ReturnedLoadDTO(false))
+                .exchange()
+                .expectStatus().isBadRequest();
+        webTestClient.patch().uri(LOAN_API + "/0").contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ReturnedLoadDTO(true))
+                .exchange()
+                .expectStatus().isNotFound();
+        webTestClient.get().uri(LOAN_API + "?isbn=loan-001").exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("content[0].customer").isEqualTo("Fulano")
+                .jsonPath("content[1].id").isEqualTo(next)
+                .jsonPath("content[1].customer").isEqualTo("Ciclano");
+    }
+
+    private WebTestClient.ResponseSpec lend(String isbn, String customer) {
+        return webTestClient.post().uri(LOAN_API).contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(LoanDTO.builder().isbn(isbn).customer(customer).build())
+                .exchange();
+    }
+}
@@ -0,0 +1,77 @@
+package br.com.library.api.benchmark;
+
+import br.com.library.api.audit.AuditJournal;
+import br.com.library.api.audit.AuditJournalProperties;
+import br.com.library.api.audit.AuditRecord;
+import br.com.library.api.audit.FsyncPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Audit records appended per second under each fsync policy. The queue is kept small so that, once it fills up,
+ * appending runs at the pace of the writer thread and the score is what the journal sustains, not what the queue
+ * absorbs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditJournalBenchmark {
+
+    @Param({"none", "interval", "batch"})
+    public String fsync;
+
+    private Path directory;
+
+    private AuditJournal journal;
+
+    @Setup
+    public void open() throws IOException {
+        directory = Files.createTempDirectory("audit-benchmark");
+        AuditJournalProperties properties = new AuditJournalProperties();
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize(DataSize.ofMegabytes(64));
+        properties.setFsync(FsyncPolicy.valueOf(fsync.toUpperCase()));
+        properties.setQueueCapacity(4096);
+        journal = new AuditJournal(properties);
+        journal.open();
+    }
+
+    @TearDown
+    public void close() throws IOException, InterruptedException {
+        journal.close();
+        System.out.printf("%naudit journal: %d records written%n", journal.getLastSequence());
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public void append() {
+        journal.append(AuditRecord.builder()
+                .timestamp(System.currentTimeMillis())
+                .type(AuditRecord.Type.LOAN_CREATED)
+                .loanId(1L)
+                .bookId(1L)
+                .isbn("978-0132350884")
+                .customer("Joãozin")
+                .build());
+    }
+}
@@ -0,0 +1,97 @@
+package br.com.library.api.benchmark;
+
+import br.com.library.api.dto.BookDTO;
+import br.com.library.api.dto.LoanDTO;
+import br.com.library.api.mapper.BookMapper;
+import br.com.library.api.mapper.LoanMapper;
+import br.com.library.api.model.Book;
+import br.com.library.api.model.Customer;
+import br.com.library.api.model.Loan;
+import br.com.library.api.repository.BookRepository;
+import br.com.library.api.repository.LoanRepository;
+import br.com.library.api.service.BookService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The pieces the controller endpoints are made of, measured one by one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ComponentBenchmark {
+
+    private BookMapper bookMapper;
+    private LoanMapper loanMapper;
+    private BookService bookService;
+    private LoanRepository loanRepository;
+
+    private Book book;
+    private BookDTO bookDTO;
+    private Loan loan;
+    private Book loanedBook;
+    private Book freeBook;
+
+    @Setup
+    public void setUp(LibraryState library) {
+        this.bookMapper = library.getBean(BookMapper.class);
+        this.loanMapper = library.getBean(LoanMapper.class);
+        this.bookService = library.getBean(BookService.class);
+        this.loanRepository = library.getBean(LoanRepository.class);
+
+        BookRepository bookRepository = library.getBean(BookRepository.class);
+        this.loanedBook = bookRepository.findByIsbn(library.isbn(0)).get();
+        this.freeBook = bookRepository.findByIsbn(library.isbn(1)).get();
+
+        this.book = Book.builder().id(1L).title("Clean Code").author(LibraryState.AUTHOR).isbn("121321").build();
+        this.bookDTO = BookDTO.builder().title("Clean Code").author(LibraryState.AUTHOR).isbn("121321").build();
+        this.loan = Loan.builder().id(1L).book(book).customer(Customer.builder().name(LibraryState.CUSTOMER).build()).loanDate(LocalDate.now()).build();
+    }
+
+    @Benchmark
+    public BookDTO mapBookToDto() {
+        return bookMapper.toDto(book);
+    }
+
+    @Benchmark
+    public Book mapDtoToBook() {
+        return bookMapper.toEntity(bookDTO);
+    }
+
+    @Benchmark
+    public LoanDTO mapLoanToDto() {
+        return loanMapper.toDto(loan);
+    }
+
+    @Benchmark
+    public Page<Book> bookServiceFind() {
+        Book filter = Book.builder().author("martin").build();
+        return bookService.find(filter, PageRequest.of(0, 20));
+    }
+
+    @Benchmark
+    public boolean existsByBookAndNotReturnedHit() {
+        return loanRepository.existsByBookAndNotReturned(loanedBook);
+    }
+
+    @Benchmark
+    public boolean existsByBookAndNotReturnedMiss() {
+        return loanRepository.existsByBookAndNotReturned(freeBook);
+    }
+}
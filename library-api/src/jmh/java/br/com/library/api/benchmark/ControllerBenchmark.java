@@ -0,0 +1,91 @@
+package br.com.library.api.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * End to end requests through the dispatcher servlet, from argument resolution and message conversion through the
+ * interceptors and conditional request handling down to H2.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ControllerBenchmark {
+
+    @Param({"20"})
+    public int pageSize;
+
+    private MockMvc mvc;
+    private LibraryState library;
+    private int nextBook;
+
+    @Setup
+    public void setUp(LibraryState library) {
+        this.library = library;
+        this.mvc = library.mockMvc();
+    }
+
+    @Benchmark
+    public String bookFind() throws Exception {
+        return perform(get("/api/books").param("author", "martin").param("size", String.valueOf(pageSize))
+                .accept(MediaType.APPLICATION_JSON));
+    }
+
+    @Benchmark
+    public String bookCreate() throws Exception {
+        String json = "{\"title\":\"Refactoring\",\"author\":\"Martin Fowler\",\"isbn\":\"" + library.nextIsbn() + "\"}";
+        return perform(post("/api/books").contentType(MediaType.APPLICATION_JSON).content(json)
+                .accept(MediaType.APPLICATION_JSON));
+    }
+
+    /**
+     * The seed only loans out the even books, so odd ones are used here; the loan is returned right away so the book can be
+     * loaned again on the next pass. That return request is part of the measured time.
+     */
+    @Benchmark
+    public String loanCreate() throws Exception {
+        int index = nextBook * 2 + 1;
+        nextBook = (nextBook + 1) % (library.books / 2);
+        String id = perform(post("/api/loans").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"isbn\":\"" + library.isbn(index) + "\",\"customer\":\"Maria\"}")
+                .accept(MediaType.APPLICATION_JSON));
+        perform(patch("/api/loans/" + id).contentType(MediaType.APPLICATION_JSON).content("{\"returned\":true}"));
+        return id;
+    }
+
+    @Benchmark
+    public String loanFind() throws Exception {
+        return perform(get("/api/loans").param("customer", LibraryState.CUSTOMER).param("size", String.valueOf(pageSize))
+                .accept(MediaType.APPLICATION_JSON));
+    }
+
+    private String perform(RequestBuilder request) throws Exception {
+        MockHttpServletResponse response = mvc.perform(request).andReturn().getResponse();
+        if (response.getStatus() >= 300) {
+            throw new IllegalStateException("Request failed with status " + response.getStatus());
+        }
+        return response.getContentAsString();
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.library.api.benchmark;
+
+import br.com.library.api.LibraryApiApplication;
+import br.com.library.api.model.Book;
+import br.com.library.api.model.Customer;
+import br.com.library.api.model.Loan;
+import br.com.library.api.repository.BookRepository;
+import br.com.library.api.repository.CustomerRepository;
+import br.com.library.api.repository.LoanRepository;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Boots the application against its own in-memory H2 database and seeds it with books and loans. The web layer is
+ * started too, on a random port, so requests can be driven through the dispatcher servlet.
+ */
+@State(Scope.Benchmark)
+public class LibraryState {
+
+    public static final String AUTHOR = "Robert Cecil Martin";
+    public static final String CUSTOMER = "Joaozin";
+
+    @Param({"1000"})
+    public int books;
+
+    public ConfigurableApplicationContext context;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(LibraryApiApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "spring.devtools.restart.enabled=false",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN",
+                        "library.audit.directory=target/benchmark-audit/" + UUID.randomUUID())
+                .run();
+
+        BookRepository bookRepository = context.getBean(BookRepository.class);
+        LoanRepository loanRepository = context.getBean(LoanRepository.class);
+        Customer customer = context.getBean(CustomerRepository.class).save(Customer.builder().name(CUSTOMER).build());
+
+        List<Book> bookList = new ArrayList<>(books);
+        for (int i = 0; i < books; i++) {
+            bookList.add(Book.builder().title("Clean Code " + i).author(AUTHOR).isbn(isbn(i)).build());
+        }
+        bookList = bookRepository.saveAll(bookList);
+
+        List<Loan> loanList = new ArrayList<>(books / 2);
+        for (int i = 0; i < bookList.size(); i += 2) {
+            loanList.add(Loan.builder().book(bookList.get(i)).customer(customer).loanDate(LocalDate.now()).build());
+        }
+        loanRepository.saveAll(loanList);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public MockMvc mockMvc() {
+        return MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+    }
+
+    public String isbn(int index) {
+        return String.format("978-%09d", index);
+    }
+
+    public String nextIsbn() {
+        return "bench-" + sequence.incrementAndGet();
+    }
+}
@@ -0,0 +1,90 @@
+package br.com.library.api.benchmark;
+
+import br.com.library.api.dto.BookDTO;
+import br.com.library.api.dto.LoanDTO;
+import br.com.library.api.mapper.BookMapper;
+import br.com.library.api.mapper.LoanMapper;
+import br.com.library.api.model.Book;
+import br.com.library.api.model.Customer;
+import br.com.library.api.model.Loan;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Maps a whole page of entities the way the list endpoints do, with ModelMapper (before) and the generated mappers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"1000"})
+    public int rows;
+
+    private ModelMapper modelMapper;
+    private BookMapper bookMapper;
+    private LoanMapper loanMapper;
+
+    private List<Book> books;
+    private List<Loan> loans;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        bookMapper = Mappers.getMapper(BookMapper.class);
+        loanMapper = Mappers.getMapper(LoanMapper.class);
+
+        books = new ArrayList<>(rows);
+        loans = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Book book = Book.builder().id((long) i).title("Clean Code " + i).author(LibraryState.AUTHOR).isbn("isbn-" + i).build();
+            books.add(book);
+            loans.add(Loan.builder().id((long) i).book(book).customer(Customer.builder().name(LibraryState.CUSTOMER).build()).loanDate(LocalDate.now()).build());
+        }
+    }
+
+    @Benchmark
+    public List<BookDTO> bookPageModelMapper() {
+        return books.stream().map(entity -> modelMapper.map(entity, BookDTO.class)).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<BookDTO> bookPageMapStruct() {
+        return books.stream().map(bookMapper::toDto).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<LoanDTO> loanPageModelMapper() {
+        return loans.stream().map(entity -> {
+            BookDTO bookDTO = modelMapper.map(entity.getBook(), BookDTO.class);
+            LoanDTO loanDTO = modelMapper.map(entity, LoanDTO.class);
+            loanDTO.setBook(bookDTO);
+            return loanDTO;
+        }).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<LoanDTO> loanPageMapStruct() {
+        return loans.stream().map(loanMapper::toDto).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,113 @@
+package br.com.library.api.benchmark;
+
+import br.com.library.api.dto.BookDTO;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.Data;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoding and decoding a 1,000-book page in each format the API negotiates, with and without gzip. The payload sizes
+ * are printed once per trial, as JMH only reports times.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"false", "true"})
+    public boolean gzip;
+
+    @Param({"1000"})
+    public int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<BookDTO> page;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        this.objectMapper = Jackson2ObjectMapperBuilder.json().factory(factory()).build();
+
+        List<BookDTO> books = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            books.add(BookDTO.builder().id((long) i).title("Clean Code " + i).author("Robert C. Martin")
+                    .isbn(String.format("978-0-13-%06d", i)).build());
+        }
+        this.page = new PageImpl<>(books, PageRequest.of(0, pageSize), 50_000);
+        this.payload = encode();
+        System.out.printf("%n%s%s payload: %d bytes%n", format, gzip ? "+gzip" : "", payload.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        try (OutputStream output = gzip ? new GZIPOutputStream(bytes) : bytes) {
+            objectMapper.writeValue(output, page);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public BookPage decode() throws IOException {
+        try (InputStream input = gzip ? new GZIPInputStream(new ByteArrayInputStream(payload)) : new ByteArrayInputStream(payload)) {
+            return objectMapper.readValue(input, BookPage.class);
+        }
+    }
+
+    private JsonFactory factory() {
+        switch (format) {
+            case "cbor":
+                return new CBORFactory();
+            case "smile":
+                return new SmileFactory();
+            default:
+                return new JsonFactory();
+        }
+    }
+
+    /**
+     * What a client reads back from a page response.
+     */
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class BookPage {
+
+        private List<BookDTO> content;
+        private long totalElements;
+    }
+}
@@ -0,0 +1,209 @@
+package br.com.library.api.loadtest;
+
+import br.com.library.api.admission.AdmissionProperties;
+import br.com.library.api.dto.LoanDTO;
+import br.com.library.api.model.Book;
+import br.com.library.api.repository.BookRepository;
+import br.com.library.api.repository.CustomerRepository;
+import br.com.library.api.repository.LoanRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Slows every SQL statement down and floods the API with searches and a few loans, once with admission control off
+ * and once with it on, comparing the latency of the requests that got in: {@code mvn -P loadtest test}.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "br.com.library.api.loadtest.AdmissionControlLoadTest$SlowDatabase",
+        "spring.datasource.hikari.maximum-pool-size=4"})
+public class AdmissionControlLoadTest {
+
+    private static final long STATEMENT_DELAY_MILLIS = 20;
+
+    private static final int SEARCH_CLIENTS = 48;
+
+    private static final int LOAN_CLIENTS = 4;
+
+    private static final long WARMUP_MILLIS = 1500;
+
+    private static final long MEASURE_MILLIS = 4000;
+
+    @Autowired
+    TestRestTemplate restTemplate;
+
+    @Autowired
+    AdmissionProperties admissionProperties;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    private final AtomicInteger nextBook = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        SlowDatabase.delayMillis = 0;
+        admissionProperties.setEnabled(true);
+        loanRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("must keep the p99 of admitted requests bounded on a slow database by shedding searches first")
+    void testSlowDatabase() throws InterruptedException {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 4000; i++) {
+            books.add(Book.builder().title("Clean Code").author("Robert C. Martin").isbn("admission-" + i).build());
+        }
+        bookRepository.saveAll(books);
+        SlowDatabase.delayMillis = STATEMENT_DELAY_MILLIS;
+
+        admissionProperties.setEnabled(false);
+        Results unprotected = run();
+        admissionProperties.setEnabled(true);
+        Results protectedRun = run();
+
+        assertThat(unprotected.searches.rejected + unprotected.loans.rejected).isZero();
+        assertThat(protectedRun.p99()).isLessThan(unprotected.p99() / 2);
+        assertThat(protectedRun.searches.rejected).isPositive();
+        assertThat(protectedRun.searches.retryAfterMissing).isZero();
+        assertThat(protectedRun.loans.rejectedShare()).isLessThan(protectedRun.searches.rejectedShare());
+    }
+
+    private Results run() throws InterruptedException {
+        Results results = new Results();
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.MILLISECONDS.toNanos(WARMUP_MILLIS);
+        long end = measureFrom + TimeUnit.MILLISECONDS.toNanos(MEASURE_MILLIS);
+
+        ExecutorService clients = Executors.newFixedThreadPool(SEARCH_CLIENTS + LOAN_CLIENTS);
+        for (int i = 0; i < SEARCH_CLIENTS; i++) {
+            clients.execute(() -> drive(results.searches, measureFrom, end,
+                    () -> restTemplate.getForEntity("/api/books?cursor=&size=5", String.class)));
+        }
+        for (int i = 0; i < LOAN_CLIENTS; i++) {
+            clients.execute(() -> drive(results.loans, measureFrom, end, () -> restTemplate.postForEntity("/api/loans",
+                    LoanDTO.builder().isbn("admission-" + nextBook.getAndIncrement()).customer("Joãozin").build(),
+                    String.class)));
+        }
+        clients.shutdown();
+        assertThat(clients.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        return results;
+    }
+
+    private void drive(Outcomes outcomes, long measureFrom, long end, Supplier<ResponseEntity<String>> request) {
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            ResponseEntity<String> response = request.get();
+            long latency = System.nanoTime() - now;
+            boolean rejected = response.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE;
+            if (now >= measureFrom) {
+                outcomes.record(latency, rejected, response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER) != null);
+            }
+            if (rejected) {
+                pause(response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+            }
+        }
+    }
+
+    private static void pause(String retryAfter) {
+        try {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(retryAfter == null ? 1 : Long.parseLong(retryAfter)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    static class Results {
+
+        final Outcomes searches = new Outcomes();
+
+        final Outcomes loans = new Outcomes();
+
+        long p99() {
+            List<Long> latencies = new ArrayList<>(searches.admitted);
+            latencies.addAll(loans.admitted);
+            return percentile(latencies, 0.99);
+        }
+    }
+
+    static class Outcomes {
+
+        final List<Long> admitted = Collections.synchronizedList(new ArrayList<>());
+
+        int rejected;
+
+        int retryAfterMissing;
+
+        synchronized void record(long latency, boolean wasRejected, boolean hasRetryAfter) {
+            if (!wasRejected) {
+                admitted.add(latency);
+                return;
+            }
+            rejected++;
+            if (!hasRetryAfter) {
+                retryAfterMissing++;
+            }
+        }
+
+        synchronized double rejectedShare() {
+            return rejected == 0 ? 0 : (double) rejected / (rejected + admitted.size());
+        }
+    }
+
+    private static long percentile(List<Long> latencies, double percentile) {
+        if (latencies.isEmpty()) {
+            return 0;
+        }
+        Collections.sort(latencies);
+        return latencies.get((int) Math.ceil(percentile * latencies.size()) - 1);
+    }
+
+    public static class SlowDatabase implements StatementInspector {
+
+        static volatile long delayMillis;
+
+        @Override
+        public String inspect(String sql) {
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return sql;
+        }
+    }
+}
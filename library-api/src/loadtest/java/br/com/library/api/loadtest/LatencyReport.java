@@ -0,0 +1,97 @@
+package br.com.library.api.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and errors per operation. Latencies are in microseconds and run from when a call was due, not from when
+ * it was sent, so a stalled server shows up in the percentiles instead of quietly lowering the rate.
+ */
+final class LatencyReport {
+
+    private static final long HIGHEST = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    LatencyReport() {
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(HIGHEST, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    void record(Operation operation, long nanos, boolean success) {
+        latencies.get(operation).recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST));
+        if (!success) {
+            errors.get(operation).increment();
+        }
+    }
+
+    long count(Operation operation) {
+        return latencies.get(operation).getTotalCount();
+    }
+
+    double errorRate(Operation operation) {
+        long count = count(operation);
+        return count == 0 ? 0 : (double) errors.get(operation).sum() / count;
+    }
+
+    double percentileMillis(Operation operation, String percentile) {
+        double value;
+        switch (percentile) {
+            case "p50": value = 50; break;
+            case "p95": value = 95; break;
+            case "p99": value = 99; break;
+            case "p999": value = 99.9; break;
+            default: throw new IllegalArgumentException(percentile);
+        }
+        return latencies.get(operation).getValueAtPercentile(value) / 1000.0;
+    }
+
+    String format(LoadTestSettings settings) {
+        StringBuilder table = new StringBuilder(String.format("%nLoad test: %d req/s for %ds, %d workers%n",
+                settings.rate, settings.duration.getSeconds(), settings.concurrency));
+        table.append(String.format("%-12s %8s %8s %9s %9s %9s %9s %9s%n",
+                "operation", "count", "errors", "p50 ms", "p95 ms", "p99 ms", "p999 ms", "max ms"));
+        for (Operation operation : settings.mix.keySet()) {
+            Histogram histogram = latencies.get(operation);
+            table.append(String.format("%-12s %8d %7.2f%% %9.1f %9.1f %9.1f %9.1f %9.1f%n", operation.key,
+                    histogram.getTotalCount(), errorRate(operation) * 100,
+                    percentileMillis(operation, "p50"), percentileMillis(operation, "p95"),
+                    percentileMillis(operation, "p99"), percentileMillis(operation, "p999"),
+                    histogram.getMaxValue() / 1000.0));
+        }
+        return table.toString();
+    }
+
+    List<String> violations(LoadTestSettings settings) {
+        List<String> violations = new ArrayList<>();
+        for (Operation operation : settings.mix.keySet()) {
+            if (count(operation) == 0) {
+                continue;
+            }
+            for (String percentile : LoadTestSettings.PERCENTILES) {
+                Double budget = settings.latencyBudget(operation, percentile);
+                double actual = percentileMillis(operation, percentile);
+                if (budget != null && actual > budget) {
+                    violations.add(String.format("%s %s %.1f ms > %.1f ms", operation.key, percentile, actual, budget));
+                }
+            }
+            double errorRate = errorRate(operation);
+            if (errorRate > settings.errorRateBudget(operation)) {
+                violations.add(String.format("%s error rate %.2f%% > %.2f%%", operation.key,
+                        errorRate * 100, settings.errorRateBudget(operation) * 100));
+            }
+        }
+        return violations;
+    }
+}
@@ -0,0 +1,167 @@
+package br.com.library.api.loadtest;
+
+import br.com.library.api.dto.BookDTO;
+import br.com.library.api.dto.LoanDTO;
+import br.com.library.api.dto.ReturnedLoadDTO;
+import org.apache.http.impl.client.HttpClients;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends the configured mix at a fixed rate (an open model): request {@code i} is due at {@code start + i / rate}
+ * whether or not earlier ones have come back, and its latency is counted from that moment.
+ */
+final class LoadDriver {
+
+    private static final int SEED_BATCH = 500;
+
+    private final LoadTestSettings settings;
+
+    private final RestTemplate restTemplate;
+
+    private final String baseUrl;
+
+    private final AtomicInteger books = new AtomicInteger();
+
+    private final Queue<String> lendableIsbns = new ConcurrentLinkedQueue<>();
+
+    private final Queue<OpenLoan> openLoans = new ConcurrentLinkedQueue<>();
+
+    LoadDriver(LoadTestSettings settings, int port) {
+        this.settings = settings;
+        this.baseUrl = "http://localhost:" + port;
+        this.restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                .setMaxConnPerRoute(settings.concurrency)
+                .setMaxConnTotal(settings.concurrency)
+                .build()));
+    }
+
+    /**
+     * Registers the books the lookups, searches and loans work on, and lends a tenth of them.
+     */
+    void seed() {
+        while (books.get() < settings.books) {
+            List<BookDTO> batch = new ArrayList<>();
+            for (int i = 0; i < SEED_BATCH && books.get() < settings.books; i++) {
+                batch.add(book(books.getAndIncrement()));
+            }
+            restTemplate.postForObject(baseUrl + "/api/books/import", batch, Void.class);
+            batch.forEach(book -> lendableIsbns.add(book.getIsbn()));
+        }
+        for (int i = 0; i < settings.books / 10; i++) {
+            createLoan();
+        }
+    }
+
+    void run(Duration duration, LatencyReport report) throws InterruptedException {
+        ExecutorService workers = Executors.newFixedThreadPool(settings.concurrency);
+        long interval = TimeUnit.SECONDS.toNanos(1) / settings.rate;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        try {
+            for (long due = start; due < end; due += interval) {
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                long intendedStart = due;
+                Operation operation = settings.nextOperation();
+                workers.execute(() -> {
+                    boolean success = call(operation);
+                    report.record(operation, System.nanoTime() - intendedStart, success);
+                });
+            }
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        }
+    }
+
+    private boolean call(Operation operation) {
+        try {
+            switch (operation) {
+                case BOOK_CREATE:
+                    return createBook();
+                case ISBN_LOOKUP:
+                    restTemplate.getForObject(baseUrl + "/api/books?isbn={isbn}&page=0&size=1", String.class,
+                            isbn(ThreadLocalRandom.current().nextInt(books.get())));
+                    return true;
+                case SEARCH:
+                    restTemplate.getForObject(baseUrl + "/api/books?title={title}&page=0&size=20", String.class,
+                            "Book " + ThreadLocalRandom.current().nextInt(100));
+                    return true;
+                case LOAN_CREATE:
+                    return createLoan();
+                case LOAN_RETURN:
+                    return returnLoan();
+                default:
+                    throw new IllegalArgumentException(operation.key);
+            }
+        } catch (RestClientException e) {
+            return false;
+        }
+    }
+
+    private boolean createBook() {
+        BookDTO book = book(books.getAndIncrement());
+        restTemplate.postForObject(baseUrl + "/api/books", book, BookDTO.class);
+        lendableIsbns.add(book.getIsbn());
+        return true;
+    }
+
+    private boolean createLoan() {
+        String isbn = lendableIsbns.poll();
+        if (isbn == null) {
+            return false;
+        }
+        Long id = restTemplate.postForObject(baseUrl + "/api/loans",
+                LoanDTO.builder().isbn(isbn).customer("Load Test").build(), Long.class);
+        openLoans.add(new OpenLoan(id, isbn));
+        return true;
+    }
+
+    private boolean returnLoan() {
+        OpenLoan loan = openLoans.poll();
+        if (loan == null) {
+            return false;
+        }
+        restTemplate.exchange(baseUrl + "/api/loans/{id}", HttpMethod.PATCH,
+                new HttpEntity<>(new ReturnedLoadDTO(true)), Void.class, loan.id);
+        lendableIsbns.add(loan.isbn);
+        return true;
+    }
+
+    private static BookDTO book(int number) {
+        return BookDTO.builder().title("Book " + number).author("Load Test").isbn(isbn(number)).build();
+    }
+
+    private static String isbn(int number) {
+        return "load-" + number;
+    }
+
+    private static final class OpenLoan {
+
+        final Long id;
+        final String isbn;
+
+        OpenLoan(Long id, String isbn) {
+            this.id = id;
+            this.isbn = isbn;
+        }
+    }
+}
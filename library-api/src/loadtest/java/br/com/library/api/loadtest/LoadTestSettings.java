@@ -0,0 +1,71 @@
+package br.com.library.api.loadtest;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Everything the load test can be told through {@code -Dloadtest.*}; the defaults live in the {@code loadtest} profile.
+ */
+final class LoadTestSettings {
+
+    static final String[] PERCENTILES = {"p50", "p95", "p99", "p999"};
+
+    final int rate;
+    final Duration warmup;
+    final Duration duration;
+    final int concurrency;
+    final int books;
+    final Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+
+    private final int totalWeight;
+
+    private LoadTestSettings() {
+        rate = Integer.parseInt(property("rate", "100"));
+        warmup = Duration.parse("PT" + property("warmup", "5s"));
+        duration = Duration.parse("PT" + property("duration", "20s"));
+        concurrency = Integer.parseInt(property("concurrency", "32"));
+        books = Integer.parseInt(property("books", "2000"));
+
+        int total = 0;
+        for (String entry : property("mix", "book-create=1,isbn-lookup=4,search=3,loan-create=1,loan-return=1").split(",")) {
+            String[] weight = entry.split("=");
+            mix.put(Operation.of(weight[0]), Integer.parseInt(weight[1].trim()));
+            total += Integer.parseInt(weight[1].trim());
+        }
+        totalWeight = total;
+    }
+
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings();
+    }
+
+    Operation nextOperation() {
+        int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            pick -= entry.getValue();
+            if (pick < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Empty mix");
+    }
+
+    /**
+     * Latency budget in milliseconds; {@code loadtest.budget.<operation>.<percentile>} overrides
+     * {@code loadtest.budget.<percentile>}. Null when no budget was agreed for it.
+     */
+    Double latencyBudget(Operation operation, String percentile) {
+        String budget = property("budget." + operation.key + "." + percentile, property("budget." + percentile, null));
+        return budget == null || budget.isEmpty() ? null : Double.valueOf(budget);
+    }
+
+    double errorRateBudget(Operation operation) {
+        return Double.parseDouble(property("budget." + operation.key + ".error-rate", property("budget.error-rate", "0.01")));
+    }
+
+    private static String property(String name, String defaultValue) {
+        return System.getProperty("loadtest." + name, defaultValue);
+    }
+}
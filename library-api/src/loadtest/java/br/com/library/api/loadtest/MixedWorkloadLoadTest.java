@@ -0,0 +1,51 @@
+package br.com.library.api.loadtest;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the mixed workload against an embedded instance and fails when a latency or error budget is exceeded:
+ * {@code mvn -P loadtest test}, tuned through the {@code loadtest.*} properties of that profile.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class MixedWorkloadLoadTest {
+
+    @LocalServerPort
+    int port;
+
+    @Test
+    @DisplayName("must serve the mixed workload within the latency budgets")
+    void testMixedWorkload() throws InterruptedException, IOException {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        LoadDriver driver = new LoadDriver(settings, port);
+        driver.seed();
+        driver.run(settings.warmup, new LatencyReport());
+
+        LatencyReport report = new LatencyReport();
+        driver.run(settings.duration, report);
+
+        String table = report.format(settings);
+        System.out.println(table);
+        Path output = Paths.get("target", "loadtest-report.txt");
+        Files.createDirectories(output.getParent());
+        Files.write(output, table.getBytes(StandardCharsets.UTF_8));
+        List<String> violations = report.violations(settings);
+        assertThat(violations).as("latency budgets").isEmpty();
+    }
+}
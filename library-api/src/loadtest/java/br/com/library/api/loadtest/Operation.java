@@ -0,0 +1,28 @@
+package br.com.library.api.loadtest;
+
+/**
+ * The calls the load test mixes, named the way the mix and the budgets refer to them.
+ */
+enum Operation {
+
+    BOOK_CREATE("book-create"),
+    ISBN_LOOKUP("isbn-lookup"),
+    SEARCH("search"),
+    LOAN_CREATE("loan-create"),
+    LOAN_RETURN("loan-return");
+
+    final String key;
+
+    Operation(String key) {
+        this.key = key;
+    }
+
+    static Operation of(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key.trim())) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation " + key);
+    }
+}
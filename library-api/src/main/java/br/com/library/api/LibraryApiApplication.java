@@ -0,0 +1,33 @@
+package br.com.library.api;
+
+import br.com.library.api.mapper.BookMapper;
+import br.com.library.api.mapper.CustomerMapper;
+import br.com.library.api.mapper.LoanMapper;
+import org.mapstruct.factory.Mappers;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+
+@SpringBootApplication
+public class LibraryApiApplication {
+
+	@Bean
+	public BookMapper bookMapper() {
+		return Mappers.getMapper(BookMapper.class);
+	}
+
+	@Bean
+	public LoanMapper loanMapper() {
+		return Mappers.getMapper(LoanMapper.class);
+	}
+
+	@Bean
+	public CustomerMapper customerMapper() {
+		return Mappers.getMapper(CustomerMapper.class);
+	}
+
+	public static void main(String[] args) {
+		SpringApplication.run(LibraryApiApplication.class, args);
+	}
+
+}
@@ -0,0 +1,97 @@
+package br.com.library.api.admission;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limits how many requests run at once, finding the limit from their latency (additive increase, multiplicative
+ * decrease).
+ * <p>
+ * Every endpoint keeps its usual latency, the lowest seen over the last window, so a slow export and a fast lookup are
+ * each judged against themselves. A request that took more than {@code latency-tolerance} times its endpoint's usual
+ * latency means requests are queueing somewhere, in the connection pool or the database, and the limit is cut by
+ * {@code backoff}, at most once for the requests that were already running then. Otherwise, while at least half the
+ * limit is in use, it grows by about one per limit's worth of requests.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private final AdmissionProperties properties;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final Map<String, EndpointLatency> endpoints = new ConcurrentHashMap<>();
+
+    private volatile double limit;
+
+    // no request started before it, so the first congested one may cut the limit
+    private long lastDecrease = System.nanoTime() - TimeUnit.DAYS.toNanos(1);
+
+    public AdaptiveConcurrencyLimit(AdmissionProperties properties) {
+        this.properties = properties;
+        this.limit = properties.getInitialLimit();
+    }
+
+    /**
+     * Takes a place for a request, unless the ones running already use its priority's share of the limit.
+     */
+    public boolean tryAcquire(Priority priority) {
+        int allowed = Math.max(1, (int) (limit * priority.getShare()));
+        if (inFlight.incrementAndGet() > allowed) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Gives the place back and adjusts the limit to how long the request to {@code endpoint} took.
+     */
+    public void release(String endpoint, long startNanos) {
+        long now = System.nanoTime();
+        int running = inFlight.getAndDecrement();
+        long latency = now - startNanos;
+        long usual = endpoints.computeIfAbsent(endpoint, key -> new EndpointLatency()).sample(latency, now);
+        boolean congested = latency > properties.getLatencyTolerance()
+                * Math.max(usual, properties.getMinLatency().toNanos());
+
+        synchronized (this) {
+            if (congested) {
+                if (startNanos - lastDecrease > 0) {
+                    limit = Math.max(properties.getMinLimit(), limit * properties.getBackoff());
+                    lastDecrease = now;
+                }
+            } else if (running * 2 >= limit) {
+                limit = Math.min(properties.getMaxLimit(), limit + 1 / limit);
+            }
+        }
+    }
+
+    public double getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private final class EndpointLatency {
+
+        private long windowStart = System.nanoTime();
+
+        private long current = Long.MAX_VALUE;
+
+        private long previous = Long.MAX_VALUE;
+
+        synchronized long sample(long latency, long now) {
+            if (now - windowStart > properties.getLatencyWindow().toNanos()) {
+                previous = current;
+                current = Long.MAX_VALUE;
+                windowStart = now;
+            }
+            current = Math.min(current, latency);
+            return Math.min(current, previous);
+        }
+    }
+}
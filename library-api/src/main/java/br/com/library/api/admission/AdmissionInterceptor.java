@@ -0,0 +1,78 @@
+package br.com.library.api.admission;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Admits requests through the {@link AdaptiveConcurrencyLimit} by their controller method's {@link AdmissionPriority}
+ * and answers the rest at once with 503 and {@code Retry-After}, before they reach the controller; the error body is
+ * written by the controller advice in whatever type the client accepts. The request has
+ * already taken a Tomcat thread by then, so what the limit protects is what lies behind the controllers: the
+ * connection pool and the database. An asynchronous request, such as an export, keeps its place until its response is
+ * complete.
+ */
+public class AdmissionInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String REJECTED_COUNTER = "library.admission.rejected";
+
+    private static final String STARTED = AdmissionInterceptor.class.getName() + ".STARTED";
+
+    private final AdaptiveConcurrencyLimit limit;
+
+    private final AdmissionProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionInterceptor(AdaptiveConcurrencyLimit limit, AdmissionProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.limit = limit;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // asynchronous requests come through again when they are dispatched back
+        if (!properties.isEnabled() || request.getAttribute(STARTED) != null) {
+            return true;
+        }
+        Priority priority = priority(handler);
+        if (!limit.tryAcquire(priority)) {
+            meterRegistry.counter(REJECTED_COUNTER, "priority", priority.name()).increment();
+            long seconds = Math.max(1, (properties.getRetryAfter().toMillis() + 999) / 1000);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(seconds));
+            throw new AdmissionRejectedException();
+        }
+        request.setAttribute(STARTED, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object started = request.getAttribute(STARTED);
+        if (started != null) {
+            request.removeAttribute(STARTED);
+            limit.release(endpoint(request), (Long) started);
+        }
+    }
+
+    private static Priority priority(Object handler) {
+        if (handler instanceof HandlerMethod) {
+            AdmissionPriority annotation = ((HandlerMethod) handler).getMethodAnnotation(AdmissionPriority.class);
+            if (annotation != null) {
+                return annotation.value();
+            }
+        }
+        return Priority.NORMAL;
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        return request.getMethod() + " " + request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.library.api.admission;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("library.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    private int initialLimit = 20;
+
+    private int minLimit = 4;
+
+    private int maxLimit = 200;
+
+    /**
+     * Factor the limit is multiplied by when a request comes back congested.
+     */
+    private double backoff = 0.9;
+
+    /**
+     * A request is congested when it takes longer than this many times the usual latency of its endpoint.
+     */
+    private double latencyTolerance = 2.0;
+
+    /**
+     * Usual latency below which endpoints are not told apart, so that sub-millisecond ones do not back off on noise.
+     */
+    private Duration minLatency = Duration.ofMillis(10);
+
+    /**
+     * How long the lowest latency of an endpoint is remembered as its usual latency; a lasting slowdown becomes the
+     * new usual after between one and two of these.
+     */
+    private Duration latencyWindow = Duration.ofSeconds(30);
+
+    private Duration retryAfter = Duration.ofSeconds(1);
+}
@@ -0,0 +1,16 @@
+package br.com.library.api.admission;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown by the {@link AdmissionInterceptor} for a request the limit has no place for. The {@code Retry-After} header
+ * is already set on the response, so it is kept even when no body the client accepts can be written.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class AdmissionRejectedException extends RuntimeException {
+
+    public AdmissionRejectedException() {
+        super("Too many requests in progress, retry later");
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.library.api.admission;
+
+/**
+ * How early requests to an endpoint are shed: each priority may only use its share of the concurrency limit, so as
+ * requests pile up the lower ones are turned away while the higher ones still get in.
+ */
+public enum Priority {
+
+    CRITICAL(1.0),
+    NORMAL(0.8),
+    LOW(0.5);
+
+    private final double share;
+
+    Priority(double share) {
+        this.share = share;
+    }
+
+    public double getShare() {
+        return share;
+    }
+}
@@ -0,0 +1,278 @@
+package br.com.library.api.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only journal of {@link AuditRecord}s in memory-mapped segment files.
+ * <p>
+ * Callers only put records on a bounded queue; a single writer thread numbers them, copies them into the current
+ * segment and forces it to disk as the {@link FsyncPolicy} says, starting a new segment when one is full. On startup
+ * the last segment is scanned and everything from its first torn record on is discarded, so a crash mid-write loses at
+ * most the records that were not complete. Earlier segments are not scanned: a segment is forced before the writer
+ * moves to the next one and never written again, so a crash cannot tear it. Damage to a sealed segment from outside
+ * the journal is reported by the {@link AuditTailer} that reaches it. {@link #tailer(long)} replays the journal from
+ * any sequence, including records still being written.
+ * <p>
+ * If the writer thread dies, the journal is failed: {@link #append(AuditRecord)} throws from then on, including for
+ * callers that were waiting on a full queue, instead of blocking for good.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(AuditJournalProperties.class)
+public class AuditJournal {
+
+    private static final int MAX_BATCH = 1024;
+
+    private static final long RETRY_MILLIS = 1000;
+
+    private final AuditJournalProperties properties;
+
+    private final Path directory;
+
+    private final int segmentSize;
+
+    private final BlockingQueue<AuditRecord> queue;
+
+    private volatile boolean running;
+
+    private volatile Throwable failure;
+
+    private volatile long lastSequence;
+
+    private Thread writer;
+
+    private FileChannel lockChannel;
+
+    private FileLock lock;
+
+    // owned by the writer thread once it is started
+    private JournalSegment segment;
+
+    private int position;
+
+    private long nextSequence;
+
+    private boolean dirty;
+
+    private long lastForce;
+
+    public AuditJournal(AuditJournalProperties properties) {
+        this.properties = properties;
+        this.directory = Paths.get(properties.getDirectory());
+        this.segmentSize = Math.toIntExact(properties.getSegmentSize().toBytes());
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+    }
+
+    @PostConstruct
+    public synchronized void open() throws IOException {
+        if (writer != null) {
+            return;
+        }
+        Files.createDirectories(directory);
+        lockChannel = FileChannel.open(directory.resolve("journal.lock"), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Audit journal " + directory.toAbsolutePath() + " is already open");
+        }
+
+        recover();
+        lastForce = System.nanoTime();
+        running = true;
+        writer = new Thread(this::write, "audit-journal-writer");
+        writer.start();
+    }
+
+    /**
+     * Queues the record for writing, blocking while the queue is full. The journal assigns its sequence, so the
+     * record must not be changed afterwards.
+     *
+     * @throws IllegalStateException if the journal is closed or its writer has failed
+     */
+    public void append(AuditRecord record) {
+        AuditRecordCodec.validate(record);
+        if (AuditRecordCodec.size(record) > segmentSize) {
+            throw new IllegalArgumentException("Audit record larger than a journal segment");
+        }
+        checkRunning();
+        try {
+            while (!queue.offer(record, RETRY_MILLIS, TimeUnit.MILLISECONDS)) {
+                checkRunning();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while appending to the audit journal", e);
+        }
+    }
+
+    /**
+     * Reads the journal from the record with {@code fromSequence} on; sequences start at 1.
+     */
+    public AuditTailer tailer(long fromSequence) {
+        return new AuditTailer(this, directory, Math.max(fromSequence, 1));
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Stops taking records, writes and forces the queued ones and releases the directory.
+     */
+    @PreDestroy
+    public synchronized void close() throws IOException, InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join();
+        writer = null;
+        segment.buffer.force();
+        lock.release();
+        lockChannel.close();
+    }
+
+    private void checkRunning() {
+        if (failure != null) {
+            throw new IllegalStateException("Audit journal writer has failed", failure);
+        }
+        if (!running) {
+            throw new IllegalStateException("Audit journal is closed");
+        }
+    }
+
+    // only the last segment can hold a torn record, the sealed ones were forced before it was started
+    private void recover() throws IOException {
+        List<Path> segments = JournalSegment.list(directory);
+        if (segments.isEmpty()) {
+            segments.add(JournalSegment.path(directory, 1));
+        }
+        Path last = segments.get(segments.size() - 1);
+        segment = JournalSegment.openForWrite(last, JournalSegment.firstSequence(last), segmentSize);
+
+        MappedByteBuffer buffer = segment.buffer;
+        AuditRecord record = new AuditRecord();
+        long expected = segment.firstSequence;
+        int end = 0;
+        AuditRecordCodec.Status status;
+        while ((status = AuditRecordCodec.decode(buffer, end, record)) == AuditRecordCodec.Status.VALID
+                && record.getSequence() == expected) {
+            end += AuditRecordCodec.length(buffer, end);
+            expected++;
+        }
+        if (status != AuditRecordCodec.Status.END) {
+            int discarded = zero(buffer, end);
+            buffer.force();
+            log.warn("Audit journal {} has a torn record at byte {}, {} bytes discarded", last, end, discarded);
+        }
+
+        position = end;
+        nextSequence = expected;
+        lastSequence = expected - 1;
+    }
+
+    // only dirties the pages that hold something, the rest of a fresh segment stays sparse
+    private static int zero(MappedByteBuffer buffer, int from) {
+        int discarded = 0;
+        for (int index = from; index < buffer.capacity(); index++) {
+            if (buffer.get(index) != 0) {
+                buffer.put(index, (byte) 0);
+                discarded = index - from + 1;
+            }
+        }
+        return discarded;
+    }
+
+    private void write() {
+        List<AuditRecord> batch = new ArrayList<>(MAX_BATCH);
+        long pollMillis = Math.max(1, Math.min(100, properties.getFsyncInterval().toMillis()));
+        try {
+            while (running || !queue.isEmpty()) {
+                AuditRecord first = queue.poll(pollMillis, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, MAX_BATCH - 1);
+                    writeAll(batch);
+                    batch.clear();
+                }
+                if (dirty && forceDue()) {
+                    segment.buffer.force();
+                    dirty = false;
+                    lastForce = System.nanoTime();
+                }
+            }
+        } catch (InterruptedException | RuntimeException | Error e) {
+            failure = e;
+            running = false;
+            log.error("Audit journal writer failed, {} records left unwritten", queue.size() + batch.size(), e);
+        }
+    }
+
+    // a segment that cannot be created is retried, the queue filling up meanwhile holds appends back
+    private void writeAll(List<AuditRecord> batch) throws InterruptedException {
+        int written = 0;
+        while (written < batch.size()) {
+            try {
+                writeRecord(batch.get(written));
+                written++;
+            } catch (IOException e) {
+                log.error("Audit journal could not start a segment in {}, retrying", directory, e);
+                Thread.sleep(RETRY_MILLIS);
+            }
+        }
+        dirty = true;
+        lastSequence = nextSequence - 1;
+    }
+
+    private void writeRecord(AuditRecord record) throws IOException {
+        record.setSequence(nextSequence);
+        int size = AuditRecordCodec.size(record);
+        if (position + size > segment.buffer.capacity()) {
+            rotate();
+        }
+        AuditRecordCodec.encode(record, segment.buffer, position);
+        position += size;
+        nextSequence++;
+    }
+
+    private void rotate() throws IOException {
+        JournalSegment next = JournalSegment.openForWrite(JournalSegment.path(directory, nextSequence), nextSequence, segmentSize);
+        segment.buffer.force();
+        segment = next;
+        position = 0;
+    }
+
+    private boolean forceDue() {
+        switch (properties.getFsync()) {
+            case BATCH:
+                return true;
+            case INTERVAL:
+                return System.nanoTime() - lastForce >= properties.getFsyncInterval().toNanos();
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.library.api.audit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Paths;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("library.audit")
+public class AuditJournalProperties {
+
+    /**
+     * Where the segment files are kept, one journal per directory. The default under the temporary directory only
+     * suits development: a deployment sets it to a persistent volume, or the audit trail goes with the next cleanup.
+     */
+    private String directory = Paths.get(System.getProperty("java.io.tmpdir"), "library-audit").toString();
+
+    /**
+     * Size each segment file is mapped at; a record that does not fit in what is left starts the next one.
+     */
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    private FsyncPolicy fsync = FsyncPolicy.INTERVAL;
+
+    private Duration fsyncInterval = Duration.ofSeconds(1);
+
+    /**
+     * Records waiting for the writer; appending blocks once it is full rather than losing any.
+     */
+    private int queueCapacity = 65536;
+}
@@ -0,0 +1,49 @@
+package br.com.library.api.audit;
+
+import br.com.library.api.model.Loan;
+import br.com.library.api.repository.LoanState;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class AuditRecord {
+
+    public enum Type {
+        LOAN_CREATED, LOAN_RETURNED, LOAN_REOPENED
+    }
+
+    private long sequence;
+    private long timestamp;
+    private Type type;
+    private long loanId;
+    private long bookId;
+    private String isbn;
+    private String customer;
+
+    public static AuditRecord of(Type type, Loan loan) {
+        return AuditRecord.builder()
+                .timestamp(System.currentTimeMillis())
+                .type(type)
+                .loanId(loan.getId() == null ? 0 : loan.getId())
+                .bookId(loan.getBook() == null || loan.getBook().getId() == null ? 0 : loan.getBook().getId())
+                .isbn(loan.getBook() == null ? null : loan.getBook().getIsbn())
+                .customer(loan.getCustomer() == null ? null : loan.getCustomer().getName())
+                .build();
+    }
+
+    public static AuditRecord of(Type type, LoanState loan) {
+        return AuditRecord.builder()
+                .timestamp(System.currentTimeMillis())
+                .type(type)
+                .loanId(loan.getLoanId())
+                .bookId(loan.getBookId())
+                .isbn(loan.getIsbn())
+                .customer(loan.getCustomer())
+                .build();
+    }
+}
@@ -0,0 +1,124 @@
+package br.com.library.api.audit;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Binary layout of a journal record: {@code int length, int crc32, payload}, the CRC covering the payload.
+ * The length is written last, so a record whose length reads zero was never written, and one whose CRC does not match
+ * was torn by a crash mid-write.
+ */
+final class AuditRecordCodec {
+
+    static final int HEADER = 8;
+
+    // sequence, timestamp, type, loan id, book id and the two string lengths
+    private static final int FIXED_PAYLOAD = 8 + 8 + 1 + 8 + 8 + 2 + 2;
+
+    private static final int MAX_STRING = 0xFFFF;
+
+    private static final AuditRecord.Type[] TYPES = AuditRecord.Type.values();
+
+    enum Status {
+        VALID, END, TORN
+    }
+
+    private AuditRecordCodec() {
+    }
+
+    static int size(AuditRecord record) {
+        return HEADER + FIXED_PAYLOAD + utf8(record.getIsbn()).length + utf8(record.getCustomer()).length;
+    }
+
+    static void validate(AuditRecord record) {
+        if (record.getType() == null) {
+            throw new IllegalArgumentException("Audit record without type");
+        }
+        if (utf8(record.getIsbn()).length > MAX_STRING || utf8(record.getCustomer()).length > MAX_STRING) {
+            throw new IllegalArgumentException("Audit record field longer than " + MAX_STRING + " bytes");
+        }
+    }
+
+    /**
+     * Writes the record at {@code position}; the caller has checked it fits.
+     */
+    static int encode(AuditRecord record, ByteBuffer buffer, int position) {
+        byte[] isbn = utf8(record.getIsbn());
+        byte[] customer = utf8(record.getCustomer());
+        int payloadLength = FIXED_PAYLOAD + isbn.length + customer.length;
+
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(position + HEADER);
+        payload.putLong(record.getSequence())
+                .putLong(record.getTimestamp())
+                .put((byte) record.getType().ordinal())
+                .putLong(record.getLoanId())
+                .putLong(record.getBookId())
+                .putShort((short) isbn.length).put(isbn)
+                .putShort((short) customer.length).put(customer);
+
+        buffer.putInt(position + 4, crc(buffer, position + HEADER, payloadLength));
+        buffer.putInt(position, payloadLength);
+        return HEADER + payloadLength;
+    }
+
+    /**
+     * Reads the record at {@code position} into {@code record}, telling whether one was there, none was, or a torn one.
+     */
+    static Status decode(ByteBuffer buffer, int position, AuditRecord record) {
+        if (position + HEADER > buffer.capacity()) {
+            return Status.END;
+        }
+        int payloadLength = buffer.getInt(position);
+        if (payloadLength == 0) {
+            return Status.END;
+        }
+        if (payloadLength < FIXED_PAYLOAD || position + HEADER + payloadLength > buffer.capacity()
+                || crc(buffer, position + HEADER, payloadLength) != buffer.getInt(position + 4)) {
+            return Status.TORN;
+        }
+
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(position + HEADER);
+        record.setSequence(payload.getLong());
+        record.setTimestamp(payload.getLong());
+        int type = payload.get();
+        if (type < 0 || type >= TYPES.length) {
+            return Status.TORN;
+        }
+        record.setType(TYPES[type]);
+        record.setLoanId(payload.getLong());
+        record.setBookId(payload.getLong());
+        record.setIsbn(string(payload));
+        record.setCustomer(string(payload));
+        return Status.VALID;
+    }
+
+    static int length(ByteBuffer buffer, int position) {
+        return HEADER + buffer.getInt(position);
+    }
+
+    private static int crc(ByteBuffer buffer, int from, int length) {
+        ByteBuffer payload = buffer.duplicate();
+        payload.position(from).limit(from + length);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+
+    // an empty string and null are both written as no bytes and read back as null
+    private static String string(ByteBuffer payload) {
+        int length = payload.getShort() & MAX_STRING;
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+    }
+}
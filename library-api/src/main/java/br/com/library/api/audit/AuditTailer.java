@@ -0,0 +1,85 @@
+package br.com.library.api.audit;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads the records of an {@link AuditJournal} in sequence order, segment after segment. Polling again after reaching
+ * the end picks up what was appended since, so a tailer can follow the journal as it grows.
+ */
+public class AuditTailer {
+
+    private final AuditJournal journal;
+
+    private final Path directory;
+
+    private final long fromSequence;
+
+    private JournalSegment segment;
+
+    private int position;
+
+    private long nextSequence;
+
+    AuditTailer(AuditJournal journal, Path directory, long fromSequence) {
+        this.journal = journal;
+        this.directory = directory;
+        this.fromSequence = fromSequence;
+    }
+
+    /**
+     * Hands up to {@code max} records written since the last poll to {@code consumer} and returns how many it got.
+     */
+    public int poll(Consumer<AuditRecord> consumer, int max) throws IOException {
+        if (segment == null) {
+            seek();
+        }
+        int polled = 0;
+        while (polled < max && nextSequence <= journal.getLastSequence()) {
+            AuditRecord record = next();
+            if (record.getSequence() >= fromSequence) {
+                consumer.accept(record);
+                polled++;
+            }
+        }
+        return polled;
+    }
+
+    public long getNextSequence() {
+        return Math.max(nextSequence, fromSequence);
+    }
+
+    private void seek() throws IOException {
+        List<Path> segments = JournalSegment.list(directory);
+        Path start = segments.isEmpty() ? JournalSegment.path(directory, 1) : segments.get(0);
+        for (Path path : segments) {
+            if (JournalSegment.firstSequence(path) <= fromSequence) {
+                start = path;
+            }
+        }
+        open(start);
+    }
+
+    private AuditRecord next() throws IOException {
+        AuditRecord record = new AuditRecord();
+        AuditRecordCodec.Status status = AuditRecordCodec.decode(segment.buffer, position, record);
+        if (status == AuditRecordCodec.Status.END) {
+            open(JournalSegment.path(directory, nextSequence));
+            status = AuditRecordCodec.decode(segment.buffer, position, record);
+        }
+        if (status != AuditRecordCodec.Status.VALID || record.getSequence() != nextSequence) {
+            throw new IllegalStateException("Audit journal record " + nextSequence + " unreadable in " + segment.path);
+        }
+        position += AuditRecordCodec.length(segment.buffer, position);
+        nextSequence++;
+        return record;
+    }
+
+    private void open(Path path) throws IOException {
+        segment = JournalSegment.openForRead(path);
+        position = 0;
+        nextSequence = segment.firstSequence;
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.library.api.audit;
+
+/**
+ * When the journal forces written records from the page cache to disk. Records that are written but not yet forced
+ * survive a crash of the application, not one of the machine.
+ */
+public enum FsyncPolicy {
+
+    /**
+     * Leaves it to the operating system, forcing only on segment rotation and shutdown.
+     */
+    NONE,
+
+    /**
+     * Forces after every batch of records the writer drains from the queue.
+     */
+    BATCH,
+
+    /**
+     * Forces at most once per {@code fsync-interval} while there are unforced records.
+     */
+    INTERVAL
+}
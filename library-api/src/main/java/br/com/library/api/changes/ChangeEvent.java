@@ -0,0 +1,41 @@
+package br.com.library.api.changes;
+
+import br.com.library.api.model.Book;
+import br.com.library.api.model.Loan;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A committed change to a book or a loan, published by the services and streamed by {@link ChangeStream}. It only
+ * says what changed; subscribers that need the new state fetch it.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ChangeEvent {
+
+    public enum Entity {
+        BOOK, LOAN
+    }
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private Entity entity;
+    private Type type;
+    private Long entityId;
+    // null when the change was made without loading the entity
+    private Long version;
+
+    public static ChangeEvent of(Type type, Book book) {
+        return new ChangeEvent(Entity.BOOK, type, book.getId(), book.getVersion());
+    }
+
+    public static ChangeEvent of(Type type, Loan loan) {
+        return new ChangeEvent(Entity.LOAN, type, loan.getId(), loan.getVersion());
+    }
+}
@@ -0,0 +1,286 @@
+package br.com.library.api.changes;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-sent stream of {@link ChangeEvent}s, delivered once the transaction that made them commits.
+ * <p>
+ * Events are numbered and kept in a ring of the last {@code buffer-size}, which is all the stream ever buffers: each
+ * subscriber only holds the id of the last event it was sent, and dispatch threads send it what came after from the
+ * ring. A subscriber reconnecting with a {@code Last-Event-ID} still in the ring gets the events it missed; one whose
+ * id is gone gets a {@value #RESYNC} event, meaning it has to reload its copy, and is streamed from there. A subscriber
+ * that falls more than {@code max-lag} events behind gets the same {@value #RESYNC} event and is disconnected instead
+ * of held on to.
+ * <p>
+ * Sends are blocking servlet writes, so each subscriber is drained on a thread of its own and a client that stops
+ * reading only holds up itself. A subscriber whose send has blocked for longer than {@code send-timeout} is dropped
+ * without waiting for the write to finish, and is completed once it does; it reconnects with its {@code Last-Event-ID}.
+ */
+@Slf4j
+@Component
+public class ChangeStream {
+
+    public static final String RESYNC = "resync";
+
+    private static final int SEND_BATCH = 256;
+
+    private final Entry[] ring;
+
+    private final int maxLag;
+
+    private final long timeoutMillis;
+
+    private final long sendTimeoutNanos;
+
+    private final ExecutorService dispatcher;
+
+    private final ScheduledExecutorService watchdog;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    // ids carry on from the clock, so an id from before a restart reads as too old rather than as one still to come
+    private long lastId = System.currentTimeMillis() * 1000;
+
+    @Autowired
+    public ChangeStream(@Value("${library.changes.buffer-size:4096}") int bufferSize,
+                        @Value("${library.changes.max-lag:1024}") int maxLag,
+                        @Value("${library.changes.timeout:30m}") Duration timeout,
+                        @Value("${library.changes.send-timeout:10s}") Duration sendTimeout) {
+        this(bufferSize, maxLag, timeout, sendTimeout, Executors.newCachedThreadPool(new DispatchThreads("change-stream-")));
+    }
+
+    ChangeStream(int bufferSize, int maxLag, Duration timeout, Duration sendTimeout, ExecutorService dispatcher) {
+        this.ring = new Entry[bufferSize];
+        this.maxLag = Math.min(maxLag, bufferSize);
+        this.timeoutMillis = timeout.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.dispatcher = dispatcher;
+        this.watchdog = Executors.newSingleThreadScheduledExecutor(new DispatchThreads("change-stream-watchdog-"));
+        long period = Math.max(1, sendTimeout.toMillis() / 4);
+        watchdog.scheduleWithFixedDelay(this::dropBlocked, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void publish(ChangeEvent event) {
+        synchronized (this) {
+            lastId++;
+            ring[slot(lastId)] = new Entry(lastId, event);
+        }
+        subscribers.forEach(this::dispatch);
+    }
+
+    /**
+     * Streams the events after {@code lastEventId}, or from now on when there is none.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        return subscribe(new SseEmitter(timeoutMillis), lastEventId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, String lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter, lastEventId != null);
+        synchronized (this) {
+            subscriber.cursor = parse(lastEventId, lastId);
+        }
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        dispatch(subscriber);
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void close() {
+        watchdog.shutdownNow();
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    // one drain per subscriber at a time; an event published while it runs is picked up by the check after it
+    private void dispatch(Subscriber subscriber) {
+        if (!subscriber.scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dispatcher.execute(() -> {
+                try {
+                    drain(subscriber);
+                } finally {
+                    subscriber.scheduled.set(false);
+                }
+                if (subscribers.contains(subscriber) && subscriber.cursor < latestId()) {
+                    dispatch(subscriber);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            subscriber.scheduled.set(false);
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            while (true) {
+                List<Entry> batch = new ArrayList<>();
+                long latest;
+                synchronized (this) {
+                    latest = lastId;
+                    long cursor = subscriber.cursor;
+                    if (cursor <= latest && latest - cursor <= maxLag) {
+                        for (long id = cursor + 1; id <= latest && batch.size() < SEND_BATCH; id++) {
+                            batch.add(ring[slot(id)]);
+                        }
+                    }
+                }
+                if (subscriber.cursor == latest) {
+                    subscriber.resuming = false;
+                    return;
+                }
+                if (batch.isEmpty()) {
+                    if (!send(subscriber, SseEmitter.event().id(String.valueOf(latest)).name(RESYNC).data(""))) {
+                        return;
+                    }
+                    subscriber.cursor = latest;
+                    if (!subscriber.resuming) {
+                        subscribers.remove(subscriber);
+                        subscriber.emitter.complete();
+                        return;
+                    }
+                    continue;
+                }
+                for (Entry entry : batch) {
+                    if (!send(subscriber, SseEmitter.event()
+                            .id(String.valueOf(entry.id))
+                            .name(entry.event.getEntity().name().toLowerCase(Locale.ROOT))
+                            .data(entry.event, MediaType.APPLICATION_JSON))) {
+                        return;
+                    }
+                    subscriber.cursor = entry.id;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(subscriber);
+            log.debug("Change stream subscriber dropped: {}", e.getMessage());
+        }
+    }
+
+    private boolean send(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        subscriber.sendingSince = System.nanoTime();
+        try {
+            subscriber.emitter.send(event);
+        } finally {
+            subscriber.sendingSince = 0;
+        }
+        if (!subscribers.contains(subscriber)) {
+            subscriber.emitter.complete();
+            return false;
+        }
+        return true;
+    }
+
+    private void dropBlocked() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            long since = subscriber.sendingSince;
+            if (since != 0 && now - since > sendTimeoutNanos && subscribers.remove(subscriber)) {
+                log.debug("Change stream subscriber dropped: send blocked for {} ms",
+                        TimeUnit.NANOSECONDS.toMillis(now - since));
+            }
+        }
+    }
+
+    private synchronized long latestId() {
+        return lastId;
+    }
+
+    private int slot(long id) {
+        return (int) Math.floorMod(id, (long) ring.length);
+    }
+
+    private static long parse(String lastEventId, long lastId) {
+        if (lastEventId == null || lastEventId.isEmpty()) {
+            return lastId;
+        }
+        try {
+            long id = Long.parseLong(lastEventId.trim());
+            return id >= 0 && id <= lastId ? id : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static final class Entry {
+
+        final long id;
+
+        final ChangeEvent event;
+
+        Entry(long id, ChangeEvent event) {
+            this.id = id;
+            this.event = event;
+        }
+    }
+
+    private static final class Subscriber {
+
+        final SseEmitter emitter;
+
+        final AtomicBoolean scheduled = new AtomicBoolean();
+
+        volatile long cursor;
+
+        volatile long sendingSince;
+
+        // a reconnecting subscriber is resynced and kept until it catches up, a live one that falls behind is dropped
+        volatile boolean resuming;
+
+        Subscriber(SseEmitter emitter, boolean resuming) {
+            this.emitter = emitter;
+            this.resuming = resuming;
+        }
+    }
+
+    private static final class DispatchThreads implements ThreadFactory {
+
+        private final String prefix;
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        DispatchThreads(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
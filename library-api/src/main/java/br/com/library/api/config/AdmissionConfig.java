@@ -0,0 +1,40 @@
+package br.com.library.api.config;
+
+import br.com.library.api.admission.AdaptiveConcurrencyLimit;
+import br.com.library.api.admission.AdmissionInterceptor;
+import br.com.library.api.admission.AdmissionProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Puts the adaptive concurrency limit in front of the API controllers. The change stream is left out: its requests
+ * stay open for as long as the client listens.
+ */
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    public static final String LIMIT_GAUGE = "library.admission.limit";
+
+    public static final String IN_FLIGHT_GAUGE = "library.admission.in-flight";
+
+    private final AdaptiveConcurrencyLimit limit;
+
+    private final AdmissionInterceptor interceptor;
+
+    public AdmissionConfig(AdmissionProperties properties, MeterRegistry meterRegistry) {
+        this.limit = new AdaptiveConcurrencyLimit(properties);
+        this.interceptor = new AdmissionInterceptor(limit, properties, meterRegistry);
+        Gauge.builder(LIMIT_GAUGE, limit, AdaptiveConcurrencyLimit::getLimit).register(meterRegistry);
+        Gauge.builder(IN_FLIGHT_GAUGE, limit, AdaptiveConcurrencyLimit::getInFlight).register(meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor).addPathPatterns("/api/**").excludePathPatterns("/api/changes");
+    }
+}
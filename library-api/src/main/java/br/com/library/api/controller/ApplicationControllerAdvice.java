@@ -0,0 +1,64 @@
+package br.com.library.api.controller;
+
+import br.com.library.api.admission.AdmissionRejectedException;
+import br.com.library.api.exception.ApiErrors;
+import br.com.library.api.exception.BusinessException;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestControllerAdvice
+public class ApplicationControllerAdvice {
+
+    public static final String ERROR_COUNTER = "library.api.errors";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiErrors handleValidationException(MethodArgumentNotValidException args) {
+        count(args);
+        BindingResult bindingResult = args.getBindingResult();
+        return new ApiErrors(bindingResult);
+    }
+
+    @ExceptionHandler(BusinessException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ApiErrors handleBusinessException(BusinessException args) {
+        count(args);
+        return new ApiErrors(args);
+    }
+
+    @ExceptionHandler(ResponseStatusException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<ApiErrors> handleResponseStatusException(ResponseStatusException args) {
+        count(args);
+        return new ResponseEntity<>(new ApiErrors(args), args.getStatus());
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ApiErrors handleOptimisticLockingFailure(OptimisticLockingFailureException args) {
+        count(args);
+        return new ApiErrors("The resource was changed by another request");
+    }
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+    public ApiErrors handleAdmissionRejected(AdmissionRejectedException args) {
+        return new ApiErrors(args.getMessage());
+    }
+
+    private void count(Exception exception) {
+        meterRegistry.counter(ERROR_COUNTER, "exception", exception.getClass().getSimpleName()).increment();
+    }
+}
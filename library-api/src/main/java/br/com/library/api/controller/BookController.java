@@ -0,0 +1,190 @@
+package br.com.library.api.controller;
+
+import br.com.library.api.admission.AdmissionPriority;
+import br.com.library.api.admission.Priority;
+import br.com.library.api.dto.BookDTO;
+import br.com.library.api.dto.BookImportResultDTO;
+import br.com.library.api.dto.CursorPageDTO;
+import br.com.library.api.dto.PopularBookDTO;
+import br.com.library.api.exception.ApiErrors;
+import br.com.library.api.exception.BusinessException;
+import br.com.library.api.mapper.BookMapper;
+import br.com.library.api.model.Book;
+import br.com.library.api.popularity.BookLoanCount;
+import br.com.library.api.popularity.BookPopularity;
+import br.com.library.api.service.BookService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.validation.Valid;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping(path = "/api/books")
+public class BookController {
+
+    private static final int MAX_POPULAR = BookPopularity.MAX_TOP;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private BookMapper bookMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private BookPopularity bookPopularity;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public BookDTO create(@RequestBody @Valid BookDTO dto) {
+        Book book = bookMapper.toEntity(dto);
+        book = bookService.save(book);
+        return bookMapper.toDto(book);
+    }
+
+    @PostMapping("/import")
+    @ResponseStatus(HttpStatus.OK)
+    public BookImportResultDTO importBooks(@RequestBody List<BookDTO> dtos) {
+        List<Book> books = dtos.stream().map(bookMapper::toEntity).collect(Collectors.toList());
+        return bookService.importBooks(books);
+    }
+
+    @GetMapping(value = "/export", produces = NdjsonWriter.MEDIA_TYPE_VALUE)
+    @AdmissionPriority(Priority.LOW)
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = output -> {
+            NdjsonWriter<BookDTO> writer = new NdjsonWriter<>(objectMapper, BookDTO.class, output);
+            bookService.exportAll(book -> writer.accept(bookMapper.toDto(book)));
+        };
+        return ResponseEntity.ok().contentType(NdjsonWriter.MEDIA_TYPE).body(body);
+    }
+
+    @GetMapping("/popular")
+    @AdmissionPriority(Priority.LOW)
+    public List<PopularBookDTO> findPopular(@RequestParam(defaultValue = "10") int size,
+                                            @RequestParam(required = false) Integer days) {
+        int limit = Math.max(1, Math.min(size, MAX_POPULAR));
+        if (days != null && (days < 1 || days > bookPopularity.getWindowDays())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "days must be between 1 and " + bookPopularity.getWindowDays());
+        }
+        List<BookLoanCount> top = days == null ? bookPopularity.top(limit) : bookPopularity.top(limit, days);
+        return top.stream()
+                .map(count -> bookService.getById(count.getBookId())
+                        .map(book -> new PopularBookDTO(bookMapper.toDto(book), count.getLoans())))
+                .filter(Optional::isPresent)
+                .map(Optional::get)
+                .collect(Collectors.toList());
+    }
+
+    @GetMapping(value = "/{id}")
+    public ResponseEntity<BookDTO> getBookDetails(@PathVariable Long id, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Long version = bookService.getVersion(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+            if (request.checkNotModified(ETags.of(version))) {
+                return null;
+            }
+        }
+        return bookService.getById(id)
+                .map(book -> ResponseEntity.ok().eTag(ETags.of(book.getVersion())).body(bookMapper.toDto(book)))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    @DeleteMapping(value = "/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void delete(@PathVariable Long id) {
+       Book book =  bookService.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        bookService.delete(book.getId());
+    }
+
+    // the version checked against If-Match is the one the update is written with, so a concurrent change still fails
+    @PutMapping("/{id}")
+    public ResponseEntity<BookDTO> update(@PathVariable Long id, BookDTO dto,
+                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Book book = bookService.getById(id).orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        if (ifMatch != null && !ETags.matches(ifMatch, book.getVersion())) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED);
+        }
+        book.setTitle(dto.getTitle());
+        book.setAuthor(dto.getAuthor());
+        try {
+            book = bookService.update(book);
+        } catch (OptimisticLockingFailureException e) {
+            if (ifMatch != null) {
+                throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED);
+            }
+            throw e;
+        }
+        return ResponseEntity.ok().eTag(ETags.of(book.getVersion())).body(bookMapper.toDto(book));
+    }
+
+    @GetMapping
+    @AdmissionPriority(Priority.LOW)
+    public ResponseEntity<Page<BookDTO>> find(BookDTO dto, Pageable pageRequest, WebRequest request) {
+        Book filter = bookMapper.toEntity(dto);
+        Page<Book> result = bookService.find(filter, pageRequest);
+        String eTag = ETags.of(result.getContent(), result.getTotalElements());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        List<BookDTO> bookDTOList = result.getContent()
+                .stream()
+                .map(bookMapper::toDto).collect(Collectors.toList());
+
+        return ResponseEntity.ok().eTag(eTag).body(new PageImpl<BookDTO>(bookDTOList, pageRequest, result.getTotalElements()));
+    }
+
+    @GetMapping(params = {"count=false", "!cursor"})
+    @AdmissionPriority(Priority.LOW)
+    public ResponseEntity<Slice<BookDTO>> findSlice(BookDTO dto, Pageable pageRequest, WebRequest request) {
+        Book filter = bookMapper.toEntity(dto);
+        Slice<Book> result = bookService.findSlice(filter, pageRequest);
+        String eTag = ETags.of(result.getContent(), result.hasNext());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        List<BookDTO> bookDTOList = result.getContent()
+                .stream()
+                .map(bookMapper::toDto).collect(Collectors.toList());
+
+        return ResponseEntity.ok().eTag(eTag).body(new SliceImpl<BookDTO>(bookDTOList, pageRequest, result.hasNext()));
+    }
+
+    @GetMapping(params = "cursor")
+    @AdmissionPriority(Priority.LOW)
+    public ResponseEntity<CursorPageDTO<BookDTO>> findByCursor(BookDTO dto, @RequestParam String cursor,
+                                                               @RequestParam(defaultValue = "20") int size,
+                                                               WebRequest request) {
+        Book filter = bookMapper.toEntity(dto);
+        Slice<Book> result = bookService.findAfter(filter, PageCursors.decode(cursor), PageCursors.size(size));
+        List<Book> books = result.getContent();
+        String eTag = ETags.of(books, result.hasNext());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        String nextCursor = result.hasNext() ? PageCursors.encode(books.get(books.size() - 1).getId()) : null;
+        List<BookDTO> bookDTOList = books.stream().map(bookMapper::toDto).collect(Collectors.toList());
+
+        return ResponseEntity.ok().eTag(eTag).body(new CursorPageDTO<>(bookDTOList, result.getSize(), nextCursor));
+    }
+}
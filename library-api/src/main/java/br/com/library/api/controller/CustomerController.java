@@ -0,0 +1,38 @@
+package br.com.library.api.controller;
+
+import br.com.library.api.dto.CustomerSummaryDTO;
+import br.com.library.api.mapper.CustomerMapper;
+import br.com.library.api.service.CustomerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("/api/customers")
+public class CustomerController {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerMapper customerMapper;
+
+    @GetMapping("/{id}")
+    public CustomerSummaryDTO getSummary(@PathVariable Long id) {
+        return customerService.getById(id)
+                .map(customerMapper::toSummary)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+
+    @GetMapping(params = "name")
+    public CustomerSummaryDTO getSummaryByName(@RequestParam String name) {
+        return customerService.getByName(name)
+                .map(customerMapper::toSummary)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
+}
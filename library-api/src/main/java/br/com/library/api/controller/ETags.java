@@ -0,0 +1,45 @@
+package br.com.library.api.controller;
+
+import br.com.library.api.model.Book;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Entity tags derived from {@code @Version}: a single book gets a strong tag with its version, a list a weak tag with a
+ * digest of the ids and versions it holds plus whatever else shapes the response. Lists are weak so the server can
+ * still gzip them: Tomcat leaves responses with a strong tag uncompressed.
+ */
+final class ETags {
+
+    private ETags() {
+    }
+
+    static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    static String of(List<Book> books, Object... state) {
+        StringBuilder content = new StringBuilder();
+        for (Book book : books) {
+            content.append(book.getId()).append(':').append(book.getVersion()).append(',');
+        }
+        for (Object part : state) {
+            content.append('|').append(part);
+        }
+        return "W/\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    // strong comparison: weak tags never match, "*" matches whatever version exists
+    static boolean matches(String ifMatch, Long version) {
+        String current = of(version);
+        for (String tag : ifMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || candidate.equals(current)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,136 @@
+package br.com.library.api.controller;
+
+import br.com.library.api.admission.AdmissionPriority;
+import br.com.library.api.admission.Priority;
+import br.com.library.api.dto.BulkReturnDTO;
+import br.com.library.api.dto.BulkReturnResultDTO;
+import br.com.library.api.dto.CursorPageDTO;
+import br.com.library.api.dto.LoanDTO;
+import br.com.library.api.dto.LoanFilterDTO;
+import br.com.library.api.dto.ReturnedLoadDTO;
+import br.com.library.api.mapper.LoanMapper;
+import br.com.library.api.model.Book;
+import br.com.library.api.model.Customer;
+import br.com.library.api.model.Loan;
+import br.com.library.api.service.BookService;
+import br.com.library.api.service.LoanService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/loans")
+public class LoanController {
+
+    @Autowired
+    private LoanService loanService;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private LoanMapper loanMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    @AdmissionPriority(Priority.CRITICAL)
+    public Long create(@RequestBody LoanDTO dto) {
+        Book book = bookService.getBookByIsbn(dto.getIsbn())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Book not found for passed ISBN"));
+        Loan entity = Loan.builder().book(book)
+                .customer(Customer.builder().name(dto.getCustomer()).build())
+                .loanDate(LocalDate.now()).build();
+        entity = loanService.save(entity);
+        return entity.getId();
+    }
+
+    @GetMapping(value = "/export", produces = NdjsonWriter.MEDIA_TYPE_VALUE)
+    @AdmissionPriority(Priority.LOW)
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = output -> {
+            NdjsonWriter<LoanDTO> writer = new NdjsonWriter<>(objectMapper, LoanDTO.class, output);
+            loanService.exportAll(loan -> writer.accept(loanMapper.toDto(loan)));
+        };
+        return ResponseEntity.ok().contentType(NdjsonWriter.MEDIA_TYPE).body(body);
+    }
+
+    @GetMapping("/overdue")
+    @AdmissionPriority(Priority.LOW)
+    public CursorPageDTO<LoanDTO> findOverdue(@RequestParam(defaultValue = "") String cursor,
+                                              @RequestParam(defaultValue = "20") int size) {
+        Slice<Loan> result = loanService.findOverdueAfter(PageCursors.decode(cursor), PageCursors.size(size));
+        List<Loan> loans = result.getContent();
+        String nextCursor = result.hasNext() ? PageCursors.encode(loans.get(loans.size() - 1).getId()) : null;
+        List<LoanDTO> loanDTOList = loans.stream().map(loanMapper::toDto).collect(Collectors.toList());
+
+        return new CursorPageDTO<>(loanDTOList, result.getSize(), nextCursor);
+    }
+
+    @PatchMapping("/{id}")
+    @ResponseStatus(HttpStatus.OK)
+    @AdmissionPriority(Priority.CRITICAL)
+    public void returnBook(@PathVariable Long id, @RequestBody ReturnedLoadDTO dto) {
+        Loan loan = loanService.getById(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        loan.setReturned(dto.getReturned());
+
+        loanService.update(loan);
+    }
+
+    @PatchMapping
+    @ResponseStatus(HttpStatus.OK)
+    @AdmissionPriority(Priority.CRITICAL)
+    public BulkReturnResultDTO returnBooks(@RequestBody BulkReturnDTO dto) {
+        return loanService.returnLoans(dto.getIds(), dto.getIsbns());
+    }
+
+    @GetMapping
+    @AdmissionPriority(Priority.LOW)
+    public Page<LoanDTO> find(LoanFilterDTO dto, Pageable pageRequest) {
+        Page<Loan> result = loanService.find(dto, pageRequest);
+        List<LoanDTO> loanDTOList = result.getContent()
+                                        .stream()
+                                        .map(loanMapper::toDto)
+                                        .collect(Collectors.toList());
+        return new PageImpl<LoanDTO>(loanDTOList, pageRequest, result.getTotalElements());
+    }
+
+    @GetMapping(params = {"count=false", "!cursor"})
+    @AdmissionPriority(Priority.LOW)
+    public Slice<LoanDTO> findSlice(LoanFilterDTO dto, Pageable pageRequest) {
+        Slice<Loan> result = loanService.findSlice(dto, pageRequest);
+        List<LoanDTO> loanDTOList = result.getContent()
+                                        .stream()
+                                        .map(loanMapper::toDto)
+                                        .collect(Collectors.toList());
+        return new SliceImpl<LoanDTO>(loanDTOList, pageRequest, result.hasNext());
+    }
+
+    @GetMapping(params = "cursor")
+    @AdmissionPriority(Priority.LOW)
+    public CursorPageDTO<LoanDTO> findByCursor(LoanFilterDTO dto, @RequestParam String cursor,
+                                               @RequestParam(defaultValue = "20") int size) {
+        Slice<Loan> result = loanService.findAfter(dto, PageCursors.decode(cursor), PageCursors.size(size));
+        List<Loan> loans = result.getContent();
+        String nextCursor = result.hasNext() ? PageCursors.encode(loans.get(loans.size() - 1).getId()) : null;
+        List<LoanDTO> loanDTOList = loans.stream().map(loanMapper::toDto).collect(Collectors.toList());
+
+        return new CursorPageDTO<>(loanDTOList, result.getSize(), nextCursor);
+    }
+}
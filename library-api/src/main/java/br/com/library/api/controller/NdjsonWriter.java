@@ -0,0 +1,39 @@
+package br.com.library.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+
+/**
+ * Writes each value as one line of JSON (newline-delimited JSON) straight to the response body.
+ */
+final class NdjsonWriter<T> implements Consumer<T> {
+
+    static final String MEDIA_TYPE_VALUE = "application/x-ndjson";
+
+    static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    private final ObjectWriter writer;
+
+    private final OutputStream output;
+
+    NdjsonWriter(ObjectMapper objectMapper, Class<T> type, OutputStream output) {
+        this.writer = objectMapper.writerFor(type);
+        this.output = output;
+    }
+
+    @Override
+    public void accept(T value) {
+        try {
+            output.write(writer.writeValueAsBytes(value));
+            output.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
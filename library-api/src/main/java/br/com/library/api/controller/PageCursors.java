@@ -0,0 +1,45 @@
+package br.com.library.api.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque tokens for keyset pagination. A token holds the id of the last row of the previous page; an empty token
+ * starts from the beginning.
+ */
+final class PageCursors {
+
+    static final int MAX_SIZE = 2000;
+
+    private static final String PREFIX = "id:";
+
+    private PageCursors() {
+    }
+
+    static String encode(Long lastId) {
+        byte[] token = (PREFIX + lastId).getBytes(StandardCharsets.UTF_8);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+
+    static Long decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            String token = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!token.startsWith(PREFIX)) {
+                throw new IllegalArgumentException(token);
+            }
+            return Long.valueOf(token.substring(PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    static int size(int size) {
+        return Math.max(1, Math.min(size, MAX_SIZE));
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.library.api.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties("library.datasource.replica")
+public class ReplicaDataSourceProperties {
+
+    private String url;
+
+    private String username;
+
+    private String password;
+
+    /**
+     * How long after a client committed a write its reads stay on the primary, to cover the replication lag.
+     * Zero sends every read-only transaction to the replica.
+     */
+    private Duration readYourWrites = Duration.ofSeconds(2);
+}
@@ -0,0 +1,91 @@
+package br.com.library.api.datasource;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Keeps a client's reads on the primary for a while after it committed a write, so reading back what it just saved
+ * is not served by a replica that has not caught up yet. The time of the write goes back to the client in the
+ * {@value #COOKIE} cookie, which lasts as long as the window, and is kept on the request for the reads that follow
+ * within it; other clients keep reading from the replica. Work done outside a request, such as the scheduled jobs,
+ * has no client to read anything back and always reads from the replica.
+ */
+public class ReplicaLagPolicy {
+
+    public static final String COOKIE = "library-last-write";
+
+    private static final String LAST_WRITE = ReplicaLagPolicy.class.getName() + ".LAST_WRITE";
+
+    private final long windowMillis;
+
+    private final Clock clock;
+
+    public ReplicaLagPolicy(Duration readYourWrites) {
+        this(readYourWrites, Clock.systemUTC());
+    }
+
+    public ReplicaLagPolicy(Duration readYourWrites, Clock clock) {
+        this.windowMillis = readYourWrites.toMillis();
+        this.clock = clock;
+    }
+
+    public void writeCommitted() {
+        ServletRequestAttributes attributes = currentRequest();
+        if (windowMillis <= 0 || attributes == null) {
+            return;
+        }
+        long now = clock.millis();
+        attributes.setAttribute(LAST_WRITE, now, RequestAttributes.SCOPE_REQUEST);
+        HttpServletResponse response = attributes.getResponse();
+        if (response != null && !response.isCommitted()) {
+            Cookie cookie = new Cookie(COOKIE, String.valueOf(now));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, (windowMillis + 999) / 1000));
+            response.addCookie(cookie);
+        }
+    }
+
+    public boolean readFromPrimary() {
+        ServletRequestAttributes attributes = currentRequest();
+        if (windowMillis <= 0 || attributes == null) {
+            return false;
+        }
+        Long lastWrite = (Long) attributes.getAttribute(LAST_WRITE, RequestAttributes.SCOPE_REQUEST);
+        if (lastWrite == null) {
+            lastWrite = lastWrite(attributes.getRequest());
+        }
+        // a time ahead of ours is not one we handed out
+        long since = lastWrite == null ? -1 : clock.millis() - lastWrite;
+        return since >= 0 && since < windowMillis;
+    }
+
+    private static Long lastWrite(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.valueOf(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static ServletRequestAttributes currentRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes ? (ServletRequestAttributes) attributes : null;
+    }
+}
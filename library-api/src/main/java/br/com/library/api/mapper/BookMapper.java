@@ -0,0 +1,16 @@
+package br.com.library.api.mapper;
+
+import br.com.library.api.dto.BookDTO;
+import br.com.library.api.model.Book;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper
+public interface BookMapper {
+
+    BookDTO toDto(Book book);
+
+    @Mapping(target = "loans", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    Book toEntity(BookDTO dto);
+}
@@ -0,0 +1,11 @@
+package br.com.library.api.mapper;
+
+import br.com.library.api.dto.CustomerSummaryDTO;
+import br.com.library.api.model.Customer;
+import org.mapstruct.Mapper;
+
+@Mapper
+public interface CustomerMapper {
+
+    CustomerSummaryDTO toSummary(Customer customer);
+}
@@ -0,0 +1,14 @@
+package br.com.library.api.mapper;
+
+import br.com.library.api.dto.LoanDTO;
+import br.com.library.api.model.Loan;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(uses = BookMapper.class)
+public interface LoanMapper {
+
+    @Mapping(target = "isbn", ignore = true)
+    @Mapping(target = "customer", source = "customer.name")
+    LoanDTO toDto(Loan loan);
+}
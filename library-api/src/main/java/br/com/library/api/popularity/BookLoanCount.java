@@ -0,0 +1,12 @@
+package br.com.library.api.popularity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BookLoanCount {
+
+    private Long bookId;
+    private long loans;
+}
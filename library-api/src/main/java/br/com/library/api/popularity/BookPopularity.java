@@ -0,0 +1,214 @@
+package br.com.library.api.popularity;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * How many times each book was lent, over all time and per day for the last {@code window-days} days.
+ * <p>
+ * Loans are counted in memory and added to the database in batches every {@code flush-interval-ms}. Only the window
+ * is kept in memory, in {@link LongAdder}s so concurrent loans of the same book do not contend; of the totals, only
+ * what was counted since the last flush is, next to the {@value #MAX_TOP} most borrowed books as the database held
+ * them then, read through the loan count index. Rankings are answered from memory alone. A book outside those
+ * {@value #MAX_TOP} is ranked by its unflushed loans until the next flush brings its stored total in.
+ */
+@Slf4j
+@Component
+public class BookPopularity implements SmartInitializingSingleton {
+
+    public static final int MAX_TOP = 100;
+
+    private static final Comparator<BookLoanCount> MOST_LOANS = Comparator.comparingLong(BookLoanCount::getLoans)
+            .reversed().thenComparing(BookLoanCount::getBookId);
+
+    private final LoanCountStore store;
+
+    private final int windowDays;
+
+    private final Clock clock;
+
+    private final Map<Long, Long> unflushedTotals = new ConcurrentHashMap<>();
+
+    // swapping in the stored top and taking out the loans it now holds is one step for the ranking
+    private final Object rankingLock = new Object();
+
+    private List<BookLoanCount> storedTop = Collections.emptyList();
+
+    private final ConcurrentNavigableMap<LocalDate, Map<Long, Counter>> daily = new ConcurrentSkipListMap<>();
+
+    @Autowired
+    public BookPopularity(LoanCountStore store, @Value("${library.popularity.window-days:30}") int windowDays) {
+        this(store, windowDays, Clock.systemDefaultZone());
+    }
+
+    BookPopularity(LoanCountStore store, int windowDays, Clock clock) {
+        this.store = store;
+        this.windowDays = windowDays;
+        this.clock = clock;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        storedTop(store.findTop(MAX_TOP), Collections.emptyMap());
+        store.loadDaily(firstDay(), (date, bookId, loans) ->
+                daily.computeIfAbsent(date, day -> new ConcurrentHashMap<>()).put(bookId, new Counter(loans)));
+    }
+
+    public int getWindowDays() {
+        return windowDays;
+    }
+
+    public void loaned(Long bookId, LocalDate date) {
+        if (bookId == null) {
+            return;
+        }
+        unflushedTotals.merge(bookId, 1L, Long::sum);
+        LocalDate day = date == null ? LocalDate.now(clock) : date;
+        if (!day.isBefore(firstDay())) {
+            daily.computeIfAbsent(day, key -> new ConcurrentHashMap<>()).computeIfAbsent(bookId, id -> new Counter(0)).increment();
+        }
+    }
+
+    /**
+     * The {@code size} most borrowed books, most loans first, {@value #MAX_TOP} at most.
+     */
+    public List<BookLoanCount> top(int size) {
+        Map<Long, Long> counts = new HashMap<>();
+        synchronized (rankingLock) {
+            storedTop.forEach(count -> counts.put(count.getBookId(), count.getLoans()));
+            unflushedTotals.forEach((bookId, loans) -> counts.merge(bookId, loans, Long::sum));
+        }
+        return top(Math.min(size, MAX_TOP), counts);
+    }
+
+    /**
+     * The {@code size} most borrowed books over the last {@code days} days, today included.
+     */
+    public List<BookLoanCount> top(int size, int days) {
+        if (days < 1 || days > windowDays) {
+            throw new IllegalArgumentException("days must be between 1 and " + windowDays);
+        }
+        Map<Long, Long> window = new HashMap<>();
+        for (Map<Long, Counter> counts : daily.tailMap(LocalDate.now(clock).minusDays(days - 1L)).values()) {
+            counts.forEach((bookId, counter) -> window.merge(bookId, counter.sum(), Long::sum));
+        }
+        return top(size, window);
+    }
+
+    /**
+     * Adds what was counted since the last flush to the database. A failed flush is retried with the next one.
+     */
+    @Scheduled(fixedDelayString = "${library.popularity.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        LocalDate firstDay = firstDay();
+        List<Runnable> flushed = new ArrayList<>();
+        Map<Long, Long> totalIncrements = new HashMap<>(unflushedTotals);
+        Map<LocalDate, Map<Long, Long>> dailyIncrements = new HashMap<>();
+        daily.forEach((day, counts) -> {
+            Map<Long, Long> increments = increments(counts, flushed);
+            if (!increments.isEmpty()) {
+                dailyIncrements.put(day, increments);
+            }
+        });
+        boolean expired = !daily.headMap(firstDay).isEmpty();
+        if (totalIncrements.isEmpty() && flushed.isEmpty() && !expired) {
+            storedTop(store.findTop(MAX_TOP), Collections.emptyMap());
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        store.add(totalIncrements, dailyIncrements, firstDay);
+        storedTop(store.findTop(MAX_TOP), totalIncrements);
+        flushed.forEach(Runnable::run);
+        daily.headMap(firstDay).clear();
+        log.debug("Flushed loan counts of {} books in {} ms", totalIncrements.size(), System.currentTimeMillis() - start);
+    }
+
+    @PreDestroy
+    public void close() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Loan counts not flushed on shutdown", e);
+        }
+    }
+
+    private void storedTop(List<BookLoanCount> top, Map<Long, Long> flushedTotals) {
+        synchronized (rankingLock) {
+            storedTop = top;
+            flushedTotals.forEach((bookId, loans) ->
+                    unflushedTotals.computeIfPresent(bookId, (id, counted) -> counted.equals(loans) ? null : counted - loans));
+        }
+    }
+
+    private LocalDate firstDay() {
+        return LocalDate.now(clock).minusDays(windowDays - 1L);
+    }
+
+    private static List<BookLoanCount> top(int size, Map<Long, Long> counts) {
+        PriorityQueue<BookLoanCount> heap = new PriorityQueue<>(size + 1, MOST_LOANS.reversed());
+        counts.forEach((bookId, loans) -> {
+            if (loans > 0) {
+                heap.offer(new BookLoanCount(bookId, loans));
+                if (heap.size() > size) {
+                    heap.poll();
+                }
+            }
+        });
+        List<BookLoanCount> top = new ArrayList<>(heap);
+        top.sort(MOST_LOANS);
+        return Collections.unmodifiableList(top);
+    }
+
+    private static Map<Long, Long> increments(Map<Long, Counter> counts, List<Runnable> flushed) {
+        Map<Long, Long> increments = new HashMap<>();
+        counts.forEach((bookId, counter) -> {
+            long sum = counter.sum();
+            if (sum != counter.flushed) {
+                increments.put(bookId, sum - counter.flushed);
+                flushed.add(() -> counter.flushed = sum);
+            }
+        });
+        return increments;
+    }
+
+    private static final class Counter {
+
+        private final LongAdder loans = new LongAdder();
+
+        // what the database holds; only read and written under the flush lock
+        private long flushed;
+
+        private Counter(long persisted) {
+            loans.add(persisted);
+            flushed = persisted;
+        }
+
+        private void increment() {
+            loans.increment();
+        }
+
+        private long sum() {
+            return loans.sum();
+        }
+    }
+}
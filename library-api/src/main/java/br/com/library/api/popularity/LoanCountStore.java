@@ -0,0 +1,78 @@
+package br.com.library.api.popularity;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loan counts per book, in total and per day. Counts are only ever added to, so instances sharing the database do
+ * not overwrite each other.
+ */
+@Repository
+public class LoanCountStore {
+
+    private static final String ADD_TOTAL = "merge into BOOK_LOAN_COUNT t"
+            + " using (select cast(? as bigint) BOOK_ID, cast(? as bigint) LOANS) s on t.BOOK_ID = s.BOOK_ID"
+            + " when matched then update set t.LOAN_COUNT = t.LOAN_COUNT + s.LOANS"
+            + " when not matched then insert (BOOK_ID, LOAN_COUNT) values (s.BOOK_ID, s.LOANS)";
+
+    private static final String ADD_DAILY = "merge into BOOK_DAILY_LOAN_COUNT t"
+            + " using (select cast(? as date) LOAN_DATE, cast(? as bigint) BOOK_ID, cast(? as bigint) LOANS) s"
+            + " on t.LOAN_DATE = s.LOAN_DATE and t.BOOK_ID = s.BOOK_ID"
+            + " when matched then update set t.LOAN_COUNT = t.LOAN_COUNT + s.LOANS"
+            + " when not matched then insert (LOAN_DATE, BOOK_ID, LOAN_COUNT) values (s.LOAN_DATE, s.BOOK_ID, s.LOANS)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LoanCountStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * The {@code size} books with the most stored loans, read in order from the loan count index.
+     */
+    public List<BookLoanCount> findTop(int size) {
+        return jdbcTemplate.query("select BOOK_ID, LOAN_COUNT from BOOK_LOAN_COUNT"
+                        + " order by LOAN_COUNT desc, BOOK_ID limit ?",
+                (row, index) -> new BookLoanCount(row.getLong(1), row.getLong(2)), size);
+    }
+
+    public void loadDaily(LocalDate since, DailyConsumer consumer) {
+        jdbcTemplate.query("select LOAN_DATE, BOOK_ID, LOAN_COUNT from BOOK_DAILY_LOAN_COUNT where LOAN_DATE >= ?",
+                (RowCallbackHandler) row -> consumer.accept(row.getDate(1).toLocalDate(), row.getLong(2), row.getLong(3)),
+                Date.valueOf(since));
+    }
+
+    /**
+     * Adds the given increments in one transaction and drops the daily counts before {@code forgetBefore}.
+     */
+    @Transactional
+    public void add(Map<Long, Long> totals, Map<LocalDate, Map<Long, Long>> daily, LocalDate forgetBefore) {
+        List<Object[]> totalRows = new ArrayList<>(totals.size());
+        totals.forEach((bookId, loans) -> totalRows.add(new Object[]{bookId, loans}));
+        List<Object[]> dailyRows = new ArrayList<>();
+        daily.forEach((date, counts) -> counts.forEach((bookId, loans) ->
+                dailyRows.add(new Object[]{Date.valueOf(date), bookId, loans})));
+
+        if (!totalRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADD_TOTAL, totalRows);
+        }
+        if (!dailyRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADD_DAILY, dailyRows);
+        }
+        jdbcTemplate.update("delete from BOOK_DAILY_LOAN_COUNT where LOAN_DATE < ?", Date.valueOf(forgetBefore));
+    }
+
+    @FunctionalInterface
+    public interface DailyConsumer {
+
+        void accept(LocalDate date, Long bookId, long loans);
+    }
+}
@@ -0,0 +1,8 @@
+package br.com.library.api.repository;
+
+public interface ActiveLoan {
+
+    Long getBookId();
+
+    Long getLoanId();
+}
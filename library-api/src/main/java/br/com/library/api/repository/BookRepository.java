@@ -0,0 +1,55 @@
+package br.com.library.api.repository;
+
+import br.com.library.api.model.Book;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public interface BookRepository extends JpaRepository<Book, Long> {
+
+    String ISBN_CACHE_REGION = "book-by-isbn";
+
+    String FILTER = "(:id is null or b.id = :id)" +
+            " and (:title is null or lower(b.title) like lower(concat('%', :title, '%')))" +
+            " and (:author is null or lower(b.author) like lower(concat('%', :author, '%')))" +
+            " and (:isbn is null or lower(b.isbn) like lower(concat('%', :isbn, '%')))";
+
+    boolean existsByIsbn(String isbn);
+
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = ISBN_CACHE_REGION)})
+    Optional<Book> findByIsbn(String isbn);
+
+    @Query(value = "select b.version from Book b where b.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query(value = "select b.isbn from Book b where b.isbn in :isbns")
+    List<String> findIsbnsIn(@Param("isbns") Collection<String> isbns);
+
+    @Query(value = "select b from Book b where b.id > :lastId and " + FILTER + " order by b.id")
+    Slice<Book> findAfter(@Param("id") Long id, @Param("title") String title, @Param("author") String author,
+                          @Param("isbn") String isbn, @Param("lastId") Long lastId, Pageable pageable);
+
+    @Query(value = "select b from Book b where " + FILTER)
+    Slice<Book> search(@Param("id") Long id, @Param("title") String title, @Param("author") String author,
+                       @Param("isbn") String isbn, Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query(value = "select b from Book b order by b.id")
+    Stream<Book> streamAll();
+}
@@ -0,0 +1,30 @@
+package br.com.library.api.repository;
+
+import br.com.library.api.model.Customer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Optional;
+
+public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+    // customers are registered on the primary, so they are looked up there too unless the caller reads a replica
+    @Transactional
+    Optional<Customer> findByName(String name);
+
+    @Modifying
+    @Query(value = "update Customer as c set c.activeLoans = c.activeLoans + 1, c.totalLoans = c.totalLoans + 1," +
+            " c.lastLoanDate = case when c.lastLoanDate is null or c.lastLoanDate < :loanDate then :loanDate" +
+            " else c.lastLoanDate end where c.id = :id")
+    int loanMade(@Param("id") Long id, @Param("loanDate") LocalDate loanDate);
+
+    @Modifying
+    @Query(value = "update Customer as c set c.activeLoans = (select count(l) from Loan as l" +
+            " where l.customer = c and l.returned = false) where c.id in :ids")
+    int recountActiveLoans(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,82 @@
+package br.com.library.api.repository;
+
+import br.com.library.api.model.Book;
+import br.com.library.api.model.Loan;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
+
+public interface LoanRepository extends JpaRepository<Loan, Long> {
+
+    // admission decisions must not be taken on a lagging replica, so these two run read-write on the primary
+    @Transactional
+    @Query(value = "select case when (count(l.id) > 0) then true else false end" +
+            " from Loan l where l.book = :book and (l.returned is null or l.returned is false)")
+    boolean existsByBookAndNotReturned(@Param("book") Book book);
+
+    @Transactional
+    @Query(value = "select l.book.id as bookId, l.id as loanId from Loan l where l.returned is null or l.returned is false")
+    List<ActiveLoan> findActiveLoans();
+
+    @Query(value = "select l from Loan as l join fetch l.book as b left join fetch l.customer as c" +
+            " where b.isbn = :isbn or c.name = :customer",
+            countQuery = "select count(l) from Loan as l join l.book as b left join l.customer as c" +
+                    " where b.isbn = :isbn or c.name = :customer")
+    Page<Loan> findByBookIsbnOrCustomer(@Param("isbn") String isbn, @Param("customer") String customer, Pageable pageable);
+
+    @Query(value = "select l from Loan as l join fetch l.book as b left join fetch l.customer as c" +
+            " where b.isbn = :isbn or c.name = :customer")
+    Slice<Loan> searchByBookIsbnOrCustomer(@Param("isbn") String isbn, @Param("customer") String customer, Pageable pageable);
+
+    @Query(value = "select l from Loan as l join fetch l.book as b left join fetch l.customer as c where l.id > :lastId" +
+            " and (b.isbn = :isbn or c.name = :customer) order by l.id")
+    Slice<Loan> findByBookIsbnOrCustomerAfter(@Param("isbn") String isbn, @Param("customer") String customer,
+                                              @Param("lastId") Long lastId, Pageable pageable);
+
+    @Query(value = "select l.id as loanId, b.id as bookId, b.isbn as isbn, c.id as customerId, c.name as customer," +
+            " l.returned as returned from Loan as l join l.book as b left join l.customer as c where l.id in :ids")
+    List<LoanState> findStatesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "select l.id as loanId, b.id as bookId, b.isbn as isbn, c.id as customerId, c.name as customer," +
+            " l.returned as returned from Book as b join Loan as l on l.book = b left join l.customer as c" +
+            " where b.isbn in :isbns and l.returned = false")
+    List<LoanState> findActiveStatesByIsbnIn(@Param("isbns") Collection<String> isbns);
+
+    @Modifying
+    @Query(value = "update Loan as l set l.returned = true, l.version = l.version + 1 where l.id in :ids and l.returned = false")
+    int markReturned(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "select l.id from Loan as l where l.id > :lastId and l.returned = false and l.overdue = false" +
+            " and l.loanDate < :dueBefore order by l.id")
+    List<Long> findOverdueIdsAfter(@Param("dueBefore") LocalDate dueBefore, @Param("lastId") Long lastId, Pageable pageable);
+
+    @Modifying
+    @Query(value = "update Loan as l set l.overdue = true, l.version = l.version + 1 where l.id in :ids" +
+            " and l.returned = false and l.overdue = false")
+    int markOverdue(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "select l from Loan as l join fetch l.book left join fetch l.customer where l.id > :lastId" +
+            " and l.overdue = true and l.returned = false order by l.id")
+    Slice<Loan> findOverdueAfter(@Param("lastId") Long lastId, Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READONLY, value = "true")})
+    @Query(value = "select l from Loan as l join fetch l.book left join fetch l.customer order by l.id")
+    Stream<Loan> streamAll();
+}
@@ -0,0 +1,16 @@
+package br.com.library.api.repository;
+
+public interface LoanState {
+
+    Long getLoanId();
+
+    Long getBookId();
+
+    String getIsbn();
+
+    Long getCustomerId();
+
+    String getCustomer();
+
+    Boolean getReturned();
+}
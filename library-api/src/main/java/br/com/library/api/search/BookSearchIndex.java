@@ -0,0 +1,314 @@
+package br.com.library.api.search;
+
+import br.com.library.api.model.Book;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory inverted index over book titles and authors.
+ * <p>
+ * Every word of a field points to the books that contain it, and every trigram of a word points to the words that
+ * contain it. A query term is looked up through the trigrams (or, when shorter than a trigram, through the whole
+ * vocabulary) and each candidate is checked against the stored text, so the matches are exactly the ones of a
+ * case-insensitive "contains" filter.
+ */
+@Component
+public class BookSearchIndex {
+
+    private final FieldIndex titles = new FieldIndex();
+
+    private final FieldIndex authors = new FieldIndex();
+
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+
+    // books removed while the index is being rebuilt, so the rebuild does not bring them back
+    private final Set<Long> removedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean rebuilding;
+
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Loads every book handed over by the loader. Books written while the rebuild runs are kept as they are.
+     */
+    public void rebuild(Consumer<Consumer<Book>> loader) {
+        rebuilding = true;
+        try {
+            loader.accept(this::load);
+            ready = true;
+        } finally {
+            rebuilding = false;
+            removedDuringRebuild.clear();
+        }
+    }
+
+    public synchronized void index(Book book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        Document previous = documents.put(book.getId(), new Document(book));
+        if (previous != null) {
+            titles.remove(previous.title, previous.id);
+            authors.remove(previous.author, previous.id);
+        }
+        titles.add(normalize(book.getTitle()), book.getId());
+        authors.add(normalize(book.getAuthor()), book.getId());
+    }
+
+    public synchronized void remove(Long id) {
+        if (rebuilding) {
+            removedDuringRebuild.add(id);
+        }
+        Document previous = documents.remove(id);
+        if (previous != null) {
+            titles.remove(previous.title, id);
+            authors.remove(previous.author, id);
+        }
+    }
+
+    /**
+     * Ids of the books matching every given filter, most relevant first, or null when neither title nor author is
+     * given and the index cannot narrow the search.
+     */
+    public List<Long> search(String title, String author, String isbn) {
+        String titleQuery = normalize(title);
+        String authorQuery = normalize(author);
+        String isbnQuery = normalize(isbn);
+
+        Set<Long> candidates = null;
+        if (hasTerms(titleQuery)) {
+            candidates = titles.candidates(titleQuery);
+        }
+        if (hasTerms(authorQuery)) {
+            Set<Long> byAuthor = authors.candidates(authorQuery);
+            candidates = candidates == null ? byAuthor : intersect(candidates, byAuthor);
+        }
+        if (candidates == null) {
+            return null;
+        }
+
+        List<Match> matches = new ArrayList<>();
+        for (Long id : candidates) {
+            Document document = documents.get(id);
+            if (document != null && document.matches(titleQuery, authorQuery, isbnQuery)) {
+                matches.add(new Match(id, 2 * score(document.title, titleQuery) + score(document.author, authorQuery)));
+            }
+        }
+        matches.sort(Comparator.comparingInt((Match match) -> match.score).reversed().thenComparing(match -> match.id));
+
+        List<Long> ids = new ArrayList<>(matches.size());
+        matches.forEach(match -> ids.add(match.id));
+        return ids;
+    }
+
+    private synchronized void load(Book book) {
+        if (!documents.containsKey(book.getId()) && !removedDuringRebuild.contains(book.getId())) {
+            index(book);
+        }
+    }
+
+    private static int score(String text, String query) {
+        if (query == null || query.isEmpty()) {
+            return 0;
+        }
+        if (text.equals(query)) {
+            return 8;
+        }
+        if (text.startsWith(query)) {
+            return 4;
+        }
+        if (text.contains(" " + query)) {
+            return 2;
+        }
+        return 1;
+    }
+
+    private static boolean hasTerms(String query) {
+        return query != null && !query.trim().isEmpty();
+    }
+
+    private static Set<Long> intersect(Set<Long> left, Set<Long> right) {
+        Set<Long> smaller = left.size() <= right.size() ? left : right;
+        Set<Long> larger = smaller == left ? right : left;
+        Set<Long> result = new HashSet<>();
+        for (Long id : smaller) {
+            if (larger.contains(id)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Document {
+
+        private final Long id;
+        private final String title;
+        private final String author;
+        private final String isbn;
+
+        private Document(Book book) {
+            this.id = book.getId();
+            this.title = nullToEmpty(normalize(book.getTitle()));
+            this.author = nullToEmpty(normalize(book.getAuthor()));
+            this.isbn = nullToEmpty(normalize(book.getIsbn()));
+        }
+
+        private boolean matches(String titleQuery, String authorQuery, String isbnQuery) {
+            return (titleQuery == null || title.contains(titleQuery))
+                    && (authorQuery == null || author.contains(authorQuery))
+                    && (isbnQuery == null || isbn.contains(isbnQuery));
+        }
+
+        private static String nullToEmpty(String value) {
+            return value == null ? "" : value;
+        }
+    }
+
+    private static final class Match {
+
+        private final Long id;
+        private final int score;
+
+        private Match(Long id, int score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+
+    /**
+     * Words of one field and the trigrams of those words.
+     */
+    private static final class FieldIndex {
+
+        private static final int GRAM = 3;
+
+        private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+        private final Map<String, Set<String>> grams = new ConcurrentHashMap<>();
+
+        void add(String text, Long id) {
+            for (String word : words(text)) {
+                postings.computeIfAbsent(word, key -> {
+                    for (String gram : grams(key)) {
+                        grams.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(key);
+                    }
+                    return ConcurrentHashMap.newKeySet();
+                }).add(id);
+            }
+        }
+
+        void remove(String text, Long id) {
+            for (String word : words(text)) {
+                Set<Long> ids = postings.get(word);
+                if (ids == null) {
+                    continue;
+                }
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(word);
+                    for (String gram : grams(word)) {
+                        Set<String> words = grams.get(gram);
+                        if (words != null) {
+                            words.remove(word);
+                            if (words.isEmpty()) {
+                                grams.remove(gram);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        /**
+         * Books holding, for every term of the query, a word that contains the term. A term never spans whitespace,
+         * so this is a superset of the books whose text contains the whole query.
+         */
+        Set<Long> candidates(String query) {
+            Set<Long> result = null;
+            for (String term : words(query)) {
+                Set<Long> ids = new HashSet<>();
+                for (String word : wordsContaining(term)) {
+                    Set<Long> posting = postings.get(word);
+                    if (posting != null) {
+                        ids.addAll(posting);
+                    }
+                }
+                result = result == null ? ids : intersect(result, ids);
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+            return result == null ? new HashSet<>() : result;
+        }
+
+        private Set<String> wordsContaining(String term) {
+            Set<String> result = new HashSet<>();
+            if (term.length() < GRAM) {
+                for (String word : postings.keySet()) {
+                    if (word.contains(term)) {
+                        result.add(word);
+                    }
+                }
+                return result;
+            }
+
+            Set<String> narrowest = null;
+            for (String gram : grams(term)) {
+                Set<String> words = grams.get(gram);
+                if (words == null) {
+                    return result;
+                }
+                if (narrowest == null || words.size() < narrowest.size()) {
+                    narrowest = words;
+                }
+            }
+            for (String word : narrowest) {
+                if (word.contains(term)) {
+                    result.add(word);
+                }
+            }
+            return result;
+        }
+
+        private static Set<String> words(String text) {
+            Set<String> words = new HashSet<>();
+            if (text != null) {
+                for (String word : text.split("\\s+")) {
+                    if (!word.isEmpty()) {
+                        words.add(word);
+                    }
+                }
+            }
+            return words;
+        }
+
+        private static Set<String> grams(String word) {
+            Set<String> grams = new HashSet<>();
+            for (int i = 0; i + GRAM <= word.length(); i++) {
+                grams.add(word.substring(i, i + GRAM));
+            }
+            return grams;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package br.com.library.api.search;
+
+import br.com.library.api.service.BookService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills the search index from the catalog once the application is up. Until it is done, searches go to the database.
+ */
+@Slf4j
+@Component
+public class BookSearchIndexLoader {
+
+    private final BookService bookService;
+
+    private final BookSearchIndex searchIndex;
+
+    public BookSearchIndexLoader(BookService bookService, BookSearchIndex searchIndex) {
+        this.bookService = bookService;
+        this.searchIndex = searchIndex;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        searchIndex.rebuild(bookService::exportAll);
+        log.info("Book search index loaded with {} books in {} ms", searchIndex.size(), System.currentTimeMillis() - start);
+    }
+}
@@ -1,10 +1,14 @@
 package br.com.library.api.service;
 
+import br.com.library.api.dto.BookImportResultDTO;
 import br.com.library.api.model.Book;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface BookService {
 
@@ -18,5 +22,15 @@ public interface BookService {
 
     Page<Book> find(Book filter, Pageable pageRequest);
 
+    Slice<Book> findSlice(Book filter, Pageable pageRequest);
+
+    Slice<Book> findAfter(Book filter, Long lastId, int size);
+
     Optional<Book> getBookByIsbn(String isbn);
+
+    Optional<Long> getVersion(Long id);
+
+    BookImportResultDTO importBooks(List<Book> books);
+
+    void exportAll(Consumer<Book> consumer);
 }
@@ -0,0 +1,20 @@
+package br.com.library.api.service;
+
+import br.com.library.api.model.Customer;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Optional;
+
+public interface CustomerService {
+
+    Customer getOrCreate(String name);
+
+    Optional<Customer> getById(Long id);
+
+    Optional<Customer> getByName(String name);
+
+    void loanMade(Customer customer, LocalDate loanDate);
+
+    void loansChanged(Collection<Long> customerIds);
+}
@@ -0,0 +1,36 @@
+package br.com.library.api.service;
+
+import br.com.library.api.dto.BulkReturnResultDTO;
+import br.com.library.api.dto.LoanFilterDTO;
+import br.com.library.api.model.Loan;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+public interface LoanService {
+
+    public Loan save(Loan loan);
+
+    Optional<Loan> getById(Long id);
+
+    Loan update(Loan loan);
+
+    Page<Loan> find(LoanFilterDTO dto, Pageable pageable);
+
+    Slice<Loan> findSlice(LoanFilterDTO dto, Pageable pageable);
+
+    Slice<Loan> findAfter(LoanFilterDTO dto, Long lastId, int size);
+
+    void exportAll(Consumer<Loan> consumer);
+
+    List<Long> markOverdue(LocalDate dueBefore, Long lastId, int size);
+
+    Slice<Loan> findOverdueAfter(Long lastId, int size);
+
+    BulkReturnResultDTO returnLoans(List<Long> ids, List<String> isbns);
+}
@@ -0,0 +1,303 @@
+package br.com.library.api.service.impl;
+
+import br.com.library.api.changes.ChangeEvent;
+import br.com.library.api.dto.BookImportFailureDTO;
+import br.com.library.api.dto.BookImportResultDTO;
+import br.com.library.api.exception.BusinessException;
+import br.com.library.api.model.Book;
+import br.com.library.api.repository.BookRepository;
+import br.com.library.api.search.BookSearchIndex;
+import br.com.library.api.service.BookService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.ExampleMatcher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Service
+public class BookServiceImpl implements BookService {
+
+    private static final long UNKNOWN = -1;
+
+    private static final String ISBN_CONSTRAINT = "UK_BOOK_ISBN";
+
+    private final BookRepository bookRepository;
+
+    private final EntityManager entityManager;
+
+    private final BookSearchIndex searchIndex;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final int importBatchSize;
+
+    private final AtomicReference<BookCount> bookCount = new AtomicReference<>(new BookCount(0, UNKNOWN));
+
+    public BookServiceImpl(BookRepository bookRepository, EntityManager entityManager, BookSearchIndex searchIndex,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${library.books.import.batch-size:500}") int importBatchSize) {
+        this.bookRepository = bookRepository;
+        this.entityManager = entityManager;
+        this.searchIndex = searchIndex;
+        this.eventPublisher = eventPublisher;
+        this.importBatchSize = importBatchSize;
+    }
+
+    @Override
+    public Book save(Book entity) {
+        if(bookRepository.existsByIsbn(entity.getIsbn())) {
+            throw new BusinessException("ISBN already registered");
+        }
+        Book book = saveUnique(entity);
+        searchIndex.index(book);
+        booksChanged();
+        eventPublisher.publishEvent(ChangeEvent.of(ChangeEvent.Type.CREATED, book));
+        return book;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Book> getById(Long id) {
+        return bookRepository.findById(id);
+    }
+
+    @Override
+    public void delete(Long id) {
+        if(id == null) {
+            throw new IllegalArgumentException("Book id cant be null");
+        }
+        bookRepository.deleteById(id);
+        searchIndex.remove(id);
+        booksChanged();
+        eventPublisher.publishEvent(new ChangeEvent(ChangeEvent.Entity.BOOK, ChangeEvent.Type.DELETED, id, null));
+    }
+
+    @Override
+    public Book update(Book book) {
+        if(book.getId() == null) {
+            throw new IllegalArgumentException("Book id cant be null");
+        }
+        Book updated = saveUnique(book);
+        searchIndex.index(updated);
+        eventPublisher.publishEvent(ChangeEvent.of(ChangeEvent.Type.UPDATED, updated));
+        return updated;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Book> find(Book filter, Pageable pageRequest) {
+        if (isEmpty(filter)) {
+            Slice<Book> result = bookRepository.search(null, null, null, null, pageRequest);
+            return new PageImpl<>(result.getContent(), pageRequest, countBooks());
+        }
+        if (searchIndex.isReady() && filter.getId() == null && pageRequest.getSort().isUnsorted()) {
+            List<Long> ids = searchIndex.search(filter.getTitle(), filter.getAuthor(), filter.getIsbn());
+            if (ids != null) {
+                return page(ids, pageRequest);
+            }
+        }
+        Example<Book> example = Example.of(filter, ExampleMatcher.matching()
+                                                            .withIgnoreCase()
+                                                            .withIgnoreNullValues()
+                                                            .withStringMatcher(ExampleMatcher.StringMatcher.CONTAINING));
+        return bookRepository.findAll(example, pageRequest);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Book> findSlice(Book filter, Pageable pageRequest) {
+        return bookRepository.search(filter.getId(), filter.getTitle(), filter.getAuthor(), filter.getIsbn(), pageRequest);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Book> findAfter(Book filter, Long lastId, int size) {
+        return bookRepository.findAfter(filter.getId(), filter.getTitle(), filter.getAuthor(), filter.getIsbn(), lastId,
+                PageRequest.of(0, size));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> getVersion(Long id) {
+        return bookRepository.findVersionById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Book> getBookByIsbn(String isbn) {
+        return bookRepository.findByIsbn(isbn);
+    }
+
+    @Override
+    public BookImportResultDTO importBooks(List<Book> books) {
+        List<BookImportFailureDTO> failures = new ArrayList<>();
+        Set<String> seenIsbns = new HashSet<>();
+        int imported = 0;
+
+        for (int from = 0; from < books.size(); from += importBatchSize) {
+            int to = Math.min(from + importBatchSize, books.size());
+            Map<Integer, Book> batch = new LinkedHashMap<>();
+            for (int index = from; index < to; index++) {
+                Book book = books.get(index);
+                if (!isComplete(book)) {
+                    failures.add(new BookImportFailureDTO(index, book.getIsbn(), "Title, author and ISBN are required"));
+                } else if (!seenIsbns.add(book.getIsbn())) {
+                    failures.add(new BookImportFailureDTO(index, book.getIsbn(), "ISBN repeated in the import"));
+                } else {
+                    batch.put(index, book);
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                Set<String> existingIsbns = new HashSet<>(bookRepository.findIsbnsIn(isbnsOf(batch)));
+                batch.entrySet().removeIf(entry -> {
+                    if (existingIsbns.contains(entry.getValue().getIsbn())) {
+                        failures.add(new BookImportFailureDTO(entry.getKey(), entry.getValue().getIsbn(), "ISBN already registered"));
+                        return true;
+                    }
+                    return false;
+                });
+                imported += insert(batch, failures);
+            }
+            entityManager.clear();
+        }
+
+        booksChanged();
+        failures.sort(Comparator.comparingInt(BookImportFailureDTO::getIndex));
+        return new BookImportResultDTO(books.size(), imported, failures);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<Book> consumer) {
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            books.forEach(book -> {
+                consumer.accept(book);
+                entityManager.detach(book);
+            });
+        }
+    }
+
+    // existsByIsbn only spares the common case a failed insert, the unique constraint is what settles a race
+    private Book saveUnique(Book book) {
+        try {
+            return bookRepository.save(book);
+        } catch (DataIntegrityViolationException e) {
+            String cause = String.valueOf(e.getMostSpecificCause().getMessage());
+            if (cause.toUpperCase().contains(ISBN_CONSTRAINT)) {
+                throw new BusinessException("ISBN already registered");
+            }
+            throw e;
+        }
+    }
+
+    private int insert(Map<Integer, Book> batch, List<BookImportFailureDTO> failures) {
+        try {
+            bookRepository.saveAll(new ArrayList<>(batch.values()));
+            batch.values().forEach(this::imported);
+            return batch.size();
+        } catch (DataAccessException e) {
+            int inserted = 0;
+            for (Map.Entry<Integer, Book> entry : batch.entrySet()) {
+                Book book = entry.getValue();
+                book.setId(null);
+                try {
+                    imported(bookRepository.save(book));
+                    inserted++;
+                } catch (DataAccessException ex) {
+                    failures.add(new BookImportFailureDTO(entry.getKey(), book.getIsbn(), ex.getMostSpecificCause().getMessage()));
+                }
+            }
+            return inserted;
+        }
+    }
+
+    private void imported(Book book) {
+        searchIndex.index(book);
+        eventPublisher.publishEvent(ChangeEvent.of(ChangeEvent.Type.CREATED, book));
+    }
+
+    private Page<Book> page(List<Long> ids, Pageable pageRequest) {
+        int from = (int) Math.min(pageRequest.getOffset(), ids.size());
+        int to = Math.min(from + pageRequest.getPageSize(), ids.size());
+        List<Long> pageIds = ids.subList(from, to);
+
+        Map<Long, Book> books = new HashMap<>();
+        bookRepository.findAllById(pageIds).forEach(book -> books.put(book.getId(), book));
+        List<Book> content = new ArrayList<>(pageIds.size());
+        for (Long id : pageIds) {
+            Book book = books.get(id);
+            if (book != null) {
+                content.add(book);
+            }
+        }
+        return new PageImpl<>(content, pageRequest, ids.size());
+    }
+
+    private Set<String> isbnsOf(Map<Integer, Book> batch) {
+        Set<String> isbns = new HashSet<>();
+        batch.values().forEach(book -> isbns.add(book.getIsbn()));
+        return isbns;
+    }
+
+    private boolean isComplete(Book book) {
+        return hasText(book.getTitle()) && hasText(book.getAuthor()) && hasText(book.getIsbn());
+    }
+
+    private boolean hasText(String value) {
+        return value != null && !value.isEmpty();
+    }
+
+    private boolean isEmpty(Book filter) {
+        return filter.getId() == null && filter.getTitle() == null && filter.getAuthor() == null && filter.getIsbn() == null;
+    }
+
+    // a count is only published if no write happened while it ran, the write replaces the value it was read from
+    private long countBooks() {
+        BookCount current = bookCount.get();
+        if (current.total != UNKNOWN) {
+            return current.total;
+        }
+        long total = bookRepository.count();
+        bookCount.compareAndSet(current, new BookCount(current.writes, total));
+        return total;
+    }
+
+    private void booksChanged() {
+        bookCount.updateAndGet(current -> new BookCount(current.writes + 1, UNKNOWN));
+    }
+
+    private static final class BookCount {
+
+        private final long writes;
+
+        private final long total;
+
+        private BookCount(long writes, long total) {
+            this.writes = writes;
+            this.total = total;
+        }
+    }
+}
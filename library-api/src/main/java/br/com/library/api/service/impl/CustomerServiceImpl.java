@@ -0,0 +1,64 @@
+package br.com.library.api.service.impl;
+
+import br.com.library.api.model.Customer;
+import br.com.library.api.repository.CustomerRepository;
+import br.com.library.api.service.CustomerService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Optional;
+
+@Service
+public class CustomerServiceImpl implements CustomerService {
+
+    private final CustomerRepository customerRepository;
+
+    public CustomerServiceImpl(CustomerRepository customerRepository) {
+        this.customerRepository = customerRepository;
+    }
+
+    // a customer registered concurrently under the same name wins the unique constraint and is read back
+    @Override
+    public Customer getOrCreate(String name) {
+        Optional<Customer> customer = customerRepository.findByName(name);
+        if (customer.isPresent()) {
+            return customer.get();
+        }
+        try {
+            return customerRepository.saveAndFlush(Customer.builder().name(name).build());
+        } catch (DataIntegrityViolationException e) {
+            return customerRepository.findByName(name).orElseThrow(() -> e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Customer> getById(Long id) {
+        return customerRepository.findById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Customer> getByName(String name) {
+        return customerRepository.findByName(name);
+    }
+
+    @Override
+    @Transactional
+    public void loanMade(Customer customer, LocalDate loanDate) {
+        if (customer != null && customer.getId() != null) {
+            customerRepository.loanMade(customer.getId(), loanDate);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void loansChanged(Collection<Long> customerIds) {
+        if (!customerIds.isEmpty()) {
+            customerRepository.recountActiveLoans(customerIds);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package br.com.library.api.service.impl;
+
+import br.com.library.api.exception.BusinessException;
+import br.com.library.api.model.Loan;
+import br.com.library.api.repository.LoanRepository;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * Lets at most one active loan exist per book.
+ * <p>
+ * Loans of the same book are serialized by one of a fixed set of locks, chosen by the book id, so loans of other
+ * books go on in parallel. The active loan of every book is kept in memory, loaded when the application starts, and
+ * answers the "already loaned" check without going to the database. Every loan write has to go through here for that
+ * map to stay right, and it only covers this instance of the application.
+ */
+@Component
+public class LoanAdmission implements SmartInitializingSingleton {
+
+    private static final int STRIPES = 64;
+
+    private final LoanRepository loanRepository;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    private final Map<Long, Long> activeLoans = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    public LoanAdmission(LoanRepository loanRepository) {
+        this.loanRepository = loanRepository;
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        loanRepository.findActiveLoans().forEach(loan -> activeLoans.put(loan.getBookId(), loan.getLoanId()));
+        ready = true;
+    }
+
+    public Loan lend(Loan loan, UnaryOperator<Loan> save) {
+        ReentrantLock lock = lockFor(loan);
+        lock.lock();
+        try {
+            if (isLoaned(loan)) {
+                throw new BusinessException("Book already loaned");
+            }
+            return record(save.apply(loan));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Loan update(Loan loan, UnaryOperator<Loan> save) {
+        ReentrantLock lock = lockFor(loan);
+        lock.lock();
+        try {
+            if (ready && !loan.isReturned() && isLoaned(loan)) {
+                throw new BusinessException("Book already loaned");
+            }
+            return record(save.apply(loan));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Frees a book whose loan was returned without going through {@link #update}, once the return is committed.
+     */
+    public void released(Long bookId, Long loanId) {
+        activeLoans.remove(bookId, loanId);
+    }
+
+    private boolean isLoaned(Loan loan) {
+        Long bookId = bookId(loan);
+        if (!ready || bookId == null) {
+            return loanRepository.existsByBookAndNotReturned(loan.getBook());
+        }
+        Long activeLoan = activeLoans.get(bookId);
+        return activeLoan != null && !activeLoan.equals(loan.getId());
+    }
+
+    private Loan record(Loan loan) {
+        Long bookId = bookId(loan);
+        if (loan != null && bookId != null && loan.getId() != null) {
+            if (loan.isReturned()) {
+                activeLoans.remove(bookId, loan.getId());
+            } else {
+                activeLoans.put(bookId, loan.getId());
+            }
+        }
+        return loan;
+    }
+
+    private ReentrantLock lockFor(Loan loan) {
+        Long bookId = bookId(loan);
+        int hash = bookId == null ? 0 : Long.hashCode(bookId);
+        return locks[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static Long bookId(Loan loan) {
+        return loan == null || loan.getBook() == null ? null : loan.getBook().getId();
+    }
+}
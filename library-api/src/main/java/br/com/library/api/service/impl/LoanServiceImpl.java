@@ -0,0 +1,276 @@
+package br.com.library.api.service.impl;
+
+import br.com.library.api.audit.AuditJournal;
+import br.com.library.api.audit.AuditRecord;
+import br.com.library.api.changes.ChangeEvent;
+import br.com.library.api.dto.BulkReturnOutcomeDTO;
+import br.com.library.api.dto.BulkReturnResultDTO;
+import br.com.library.api.dto.LoanFilterDTO;
+import br.com.library.api.model.Customer;
+import br.com.library.api.model.Loan;
+import br.com.library.api.popularity.BookPopularity;
+import br.com.library.api.repository.LoanRepository;
+import br.com.library.api.repository.LoanState;
+import br.com.library.api.service.CustomerService;
+import br.com.library.api.service.LoanService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+public class LoanServiceImpl implements LoanService {
+
+    private final LoanRepository loanRepository;
+
+    private final EntityManager entityManager;
+
+    private final LoanAdmission loanAdmission;
+
+    private final BookPopularity bookPopularity;
+
+    private final CustomerService customerService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final AuditJournal auditJournal;
+
+    private final int returnBatchSize;
+
+    public LoanServiceImpl(LoanRepository loanRepository, EntityManager entityManager, LoanAdmission loanAdmission,
+                           BookPopularity bookPopularity, CustomerService customerService,
+                           TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+                           AuditJournal auditJournal, @Value("${library.loans.return.batch-size:500}") int returnBatchSize) {
+        this.loanRepository = loanRepository;
+        this.entityManager = entityManager;
+        this.loanAdmission = loanAdmission;
+        this.bookPopularity = bookPopularity;
+        this.customerService = customerService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.auditJournal = auditJournal;
+        this.returnBatchSize = returnBatchSize;
+    }
+
+    // the loan and its customer's aggregates are written in one transaction, inside the admission lock
+    @Override
+    public Loan save(Loan loan) {
+        resolveCustomer(loan);
+        Loan saved = loanAdmission.lend(loan, lending -> transactionTemplate.execute(status -> {
+            Loan inserted = loanRepository.save(lending);
+            customerService.loanMade(inserted.getCustomer(), inserted.getLoanDate());
+            return inserted;
+        }));
+        if (saved.getBook() != null) {
+            afterCommit(() -> bookPopularity.loaned(saved.getBook().getId(), saved.getLoanDate()));
+        }
+        afterCommit(() -> audit(AuditRecord.of(AuditRecord.Type.LOAN_CREATED, saved)));
+        eventPublisher.publishEvent(ChangeEvent.of(ChangeEvent.Type.CREATED, saved));
+        return saved;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Loan> getById(Long id) {
+        return loanRepository.findById(id);
+    }
+
+    @Override
+    public Loan update(Loan loan) {
+        Loan updated = loanAdmission.update(loan, updating -> transactionTemplate.execute(status -> {
+            Loan saved = loanRepository.save(updating);
+            if (saved.getCustomer() != null) {
+                customerService.loansChanged(Collections.singleton(saved.getCustomer().getId()));
+            }
+            return saved;
+        }));
+        afterCommit(() -> audit(AuditRecord.of(
+                updated.isReturned() ? AuditRecord.Type.LOAN_RETURNED : AuditRecord.Type.LOAN_REOPENED, updated)));
+        eventPublisher.publishEvent(ChangeEvent.of(ChangeEvent.Type.UPDATED, updated));
+        return updated;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Loan> find(LoanFilterDTO dto, Pageable pageable) {
+        return loanRepository.findByBookIsbnOrCustomer(dto.getIsbn(), dto.getCustomer(), pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Loan> findSlice(LoanFilterDTO dto, Pageable pageable) {
+        return loanRepository.searchByBookIsbnOrCustomer(dto.getIsbn(), dto.getCustomer(), pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Loan> findAfter(LoanFilterDTO dto, Long lastId, int size) {
+        return loanRepository.findByBookIsbnOrCustomerAfter(dto.getIsbn(), dto.getCustomer(), lastId, PageRequest.of(0, size));
+    }
+
+    @Override
+    @Transactional
+    public List<Long> markOverdue(LocalDate dueBefore, Long lastId, int size) {
+        List<Long> ids = loanRepository.findOverdueIdsAfter(dueBefore, lastId, PageRequest.of(0, size));
+        if (!ids.isEmpty()) {
+            loanRepository.markOverdue(ids);
+            ids.forEach(id -> eventPublisher.publishEvent(
+                    new ChangeEvent(ChangeEvent.Entity.LOAN, ChangeEvent.Type.UPDATED, id, null)));
+        }
+        return ids;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Loan> findOverdueAfter(Long lastId, int size) {
+        return loanRepository.findOverdueAfter(lastId, PageRequest.of(0, size));
+    }
+
+    @Override
+    @Transactional
+    public BulkReturnResultDTO returnLoans(List<Long> ids, List<String> isbns) {
+        Set<Long> loanIds = ids == null ? Collections.emptySet() : new LinkedHashSet<>(ids);
+        Set<String> loanIsbns = isbns == null ? Collections.emptySet() : new LinkedHashSet<>(isbns);
+        List<BulkReturnOutcomeDTO> outcomes = new ArrayList<>(loanIds.size() + loanIsbns.size());
+        List<LoanState> returned = new ArrayList<>();
+
+        for (List<Long> batch : batches(loanIds)) {
+            Map<Long, LoanState> states = new HashMap<>();
+            loanRepository.findStatesByIdIn(batch).forEach(state -> states.put(state.getLoanId(), state));
+            List<Long> open = new ArrayList<>();
+            Set<Long> customers = new HashSet<>();
+            for (Long id : batch) {
+                LoanState state = states.get(id);
+                if (state == null) {
+                    outcomes.add(new BulkReturnOutcomeDTO(id, null, BulkReturnOutcomeDTO.Status.NOT_FOUND));
+                } else if (Boolean.TRUE.equals(state.getReturned())) {
+                    outcomes.add(new BulkReturnOutcomeDTO(id, state.getIsbn(), BulkReturnOutcomeDTO.Status.ALREADY_RETURNED));
+                } else {
+                    outcomes.add(new BulkReturnOutcomeDTO(id, state.getIsbn(), BulkReturnOutcomeDTO.Status.RETURNED));
+                    open.add(id);
+                    returned.add(state);
+                    addCustomer(customers, state);
+                }
+            }
+            markReturned(open, customers);
+        }
+
+        for (List<String> batch : batches(loanIsbns)) {
+            Map<String, List<LoanState>> states = new HashMap<>();
+            loanRepository.findActiveStatesByIsbnIn(batch)
+                    .forEach(state -> states.computeIfAbsent(state.getIsbn(), isbn -> new ArrayList<>()).add(state));
+            List<Long> open = new ArrayList<>();
+            Set<Long> customers = new HashSet<>();
+            for (String isbn : batch) {
+                List<LoanState> active = states.getOrDefault(isbn, Collections.emptyList());
+                if (active.isEmpty()) {
+                    outcomes.add(new BulkReturnOutcomeDTO(null, isbn, BulkReturnOutcomeDTO.Status.NOT_LOANED));
+                }
+                for (LoanState state : active) {
+                    outcomes.add(new BulkReturnOutcomeDTO(state.getLoanId(), isbn, BulkReturnOutcomeDTO.Status.RETURNED));
+                    open.add(state.getLoanId());
+                    returned.add(state);
+                    addCustomer(customers, state);
+                }
+            }
+            markReturned(open, customers);
+        }
+
+        afterCommit(() -> {
+            returned.forEach(state -> loanAdmission.released(state.getBookId(), state.getLoanId()));
+            returned.forEach(state -> audit(AuditRecord.of(AuditRecord.Type.LOAN_RETURNED, state)));
+        });
+        returned.forEach(state -> eventPublisher.publishEvent(
+                new ChangeEvent(ChangeEvent.Entity.LOAN, ChangeEvent.Type.UPDATED, state.getLoanId(), null)));
+        return new BulkReturnResultDTO(loanIds.size() + loanIsbns.size(), returned.size(), outcomes);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportAll(Consumer<Loan> consumer) {
+        try (Stream<Loan> loans = loanRepository.streamAll()) {
+            loans.forEach(loan -> {
+                consumer.accept(loan);
+                entityManager.detach(loan.getBook());
+                entityManager.detach(loan);
+            });
+        }
+    }
+
+    private void resolveCustomer(Loan loan) {
+        Customer customer = loan.getCustomer();
+        if (customer != null && customer.getId() == null) {
+            loan.setCustomer(customer.getName() == null ? null : customerService.getOrCreate(customer.getName()));
+        }
+    }
+
+    private void markReturned(List<Long> loanIds, Set<Long> customerIds) {
+        if (!loanIds.isEmpty()) {
+            loanRepository.markReturned(loanIds);
+            customerService.loansChanged(customerIds);
+        }
+    }
+
+    private static void addCustomer(Set<Long> customerIds, LoanState state) {
+        if (state.getCustomerId() != null) {
+            customerIds.add(state.getCustomerId());
+        }
+    }
+
+    private <T> List<List<T>> batches(Collection<T> values) {
+        List<T> list = new ArrayList<>(values);
+        List<List<T>> batches = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += returnBatchSize) {
+            batches.add(list.subList(from, Math.min(from + returnBatchSize, list.size())));
+        }
+        return batches;
+    }
+
+    // the loan is committed by now, so a journal that cannot take the record must not fail the request
+    private void audit(AuditRecord record) {
+        try {
+            auditJournal.append(record);
+        } catch (RuntimeException e) {
+            log.error("Audit record {} of loan {} not written", record.getType(), record.getLoanId(), e);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
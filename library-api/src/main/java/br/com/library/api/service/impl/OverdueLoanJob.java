@@ -0,0 +1,55 @@
+package br.com.library.api.service.impl;
+
+import br.com.library.api.service.LoanService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Flags the open loans older than the due period. The loans are walked by id, one chunk per transaction, so no lock
+ * is held for long and only one chunk of ids is in memory at a time.
+ */
+@Slf4j
+@Component
+public class OverdueLoanJob {
+
+    private final LoanService loanService;
+
+    private final int dueDays;
+
+    private final int chunkSize;
+
+    public OverdueLoanJob(LoanService loanService,
+                          @Value("${library.loans.overdue.due-days:14}") int dueDays,
+                          @Value("${library.loans.overdue.chunk-size:1000}") int chunkSize) {
+        this.loanService = loanService;
+        this.dueDays = dueDays;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${library.loans.overdue.cron:0 0 * * * *}")
+    public void run() {
+        markOverdue(LocalDate.now().minusDays(dueDays));
+    }
+
+    public int markOverdue(LocalDate dueBefore) {
+        long start = System.currentTimeMillis();
+        long lastId = 0;
+        int marked = 0;
+        List<Long> ids;
+        do {
+            ids = loanService.markOverdue(dueBefore, lastId, chunkSize);
+            if (!ids.isEmpty()) {
+                lastId = ids.get(ids.size() - 1);
+                marked += ids.size();
+            }
+        } while (ids.size() == chunkSize);
+
+        log.info("Marked {} loans taken before {} as overdue in {} ms", marked, dueBefore, System.currentTimeMillis() - start);
+        return marked;
+    }
+}
@@ -0,0 +1,98 @@
+package br.com.library.api.admission;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class AdaptiveConcurrencyLimitTest {
+
+    static final String ENDPOINT = "GET /api/books";
+
+    @Test
+    @DisplayName("must shed low priority requests first and critical ones last")
+    void testPriorities() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(properties(10));
+
+        assertThat(acquire(limit, Priority.LOW, 6)).isEqualTo(5);
+        assertThat(acquire(limit, Priority.NORMAL, 6)).isEqualTo(3);
+        assertThat(acquire(limit, Priority.CRITICAL, 6)).isEqualTo(2);
+        assertThat(limit.getInFlight()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("must cut the limit once for the requests running when one comes back congested")
+    void testBackoff() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(properties(10));
+        long start = System.nanoTime();
+        acquire(limit, Priority.CRITICAL, 3);
+
+        limit.release(ENDPOINT, System.nanoTime() - millis(20));
+        limit.release(ENDPOINT, start - millis(200));
+        limit.release(ENDPOINT, start - millis(200));
+
+        assertThat(limit.getLimit()).isEqualTo(9.0);
+        assertThat(limit.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("must judge each endpoint against its own usual latency")
+    void testLatencyPerEndpoint() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(properties(10));
+        acquire(limit, Priority.CRITICAL, 2);
+
+        limit.release(ENDPOINT, System.nanoTime() - millis(20));
+        limit.release("GET /api/books/export", System.nanoTime() - millis(500));
+
+        assertThat(limit.getLimit()).isEqualTo(10.0);
+    }
+
+    @Test
+    @DisplayName("must raise the limit only while half of it is in use and requests stay fast")
+    void testIncrease() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(properties(4));
+
+        for (int i = 0; i < 40; i++) {
+            acquire(limit, Priority.CRITICAL, 3);
+            for (int request = 0; request < 3; request++) {
+                limit.release(ENDPOINT, System.nanoTime());
+            }
+        }
+        double raised = limit.getLimit();
+        for (int i = 0; i < 40; i++) {
+            acquire(limit, Priority.CRITICAL, 1);
+            limit.release(ENDPOINT, System.nanoTime());
+        }
+
+        assertThat(raised).isGreaterThan(5.0);
+        assertThat(limit.getLimit()).isEqualTo(raised);
+    }
+
+    private static AdmissionProperties properties(int initialLimit) {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setInitialLimit(initialLimit);
+        properties.setMinLimit(2);
+        return properties;
+    }
+
+    private static int acquire(AdaptiveConcurrencyLimit limit, Priority priority, int requests) {
+        int admitted = 0;
+        for (int i = 0; i < requests; i++) {
+            if (limit.tryAcquire(priority)) {
+                admitted++;
+            }
+        }
+        return admitted;
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,114 @@
+package br.com.library.api.admission;
+
+import br.com.library.api.controller.ApplicationControllerAdvice;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class AdmissionInterceptorTest {
+
+    static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    AdaptiveConcurrencyLimit limit;
+
+    MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        AdmissionProperties properties = new AdmissionProperties();
+        properties.setInitialLimit(1);
+        properties.setRetryAfter(Duration.ofMillis(1500));
+        limit = new AdaptiveConcurrencyLimit(properties);
+        mockMvc = MockMvcBuilders.standaloneSetup(new BooksController())
+                .setControllerAdvice(new ApplicationControllerAdvice())
+                .addInterceptors(new AdmissionInterceptor(limit, properties, meterRegistry))
+                .build();
+    }
+
+    @Test
+    @DisplayName("must admit a request while the limit has a place for it")
+    void testAdmitted() throws Exception {
+        mockMvc.perform(get("/api/books").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("[0]").value("Clean Code"));
+
+        assertThat(limit.getInFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("must reject in the media type the client accepts, with Retry-After")
+    void testRejectedInAcceptedType() throws Exception {
+        limit.tryAcquire(Priority.CRITICAL);
+
+        mockMvc.perform(get("/api/books").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("errors[0]").value("Too many requests in progress, retry later"));
+        byte[] body = mockMvc.perform(get("/api/books").accept(MediaType.parseMediaType("application/cbor")))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"))
+                .andExpect(content().contentTypeCompatibleWith("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(new CBORMapper().readTree(body).get("errors").get(0).asText())
+                .isEqualTo("Too many requests in progress, retry later");
+        assertThat(meterRegistry.counter(AdmissionInterceptor.REJECTED_COUNTER, "priority", "NORMAL").count())
+                .isEqualTo(2);
+        assertThat(limit.getInFlight()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("must still answer 503 with Retry-After when no error body can be written in the accepted type")
+    void testRejectedWithoutAcceptableBody() throws Exception {
+        limit.tryAcquire(Priority.CRITICAL);
+
+        mockMvc.perform(get("/api/books/export").accept(NDJSON))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "2"));
+    }
+
+    // not a @RestController, so the application's component scan leaves it alone
+    @ResponseBody
+    @RequestMapping("/api/books")
+    static class BooksController {
+
+        @GetMapping
+        public List<String> find() {
+            return Collections.singletonList("Clean Code");
+        }
+
+        @GetMapping(value = "/export", produces = "application/x-ndjson")
+        @AdmissionPriority(Priority.LOW)
+        public String export() {
+            return "{\"title\":\"Clean Code\"}\n";
+        }
+    }
+}
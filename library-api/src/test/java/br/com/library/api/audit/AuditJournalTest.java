@@ -0,0 +1,178 @@
+package br.com.library.api.audit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class AuditJournalTest {
+
+    @TempDir
+    Path directory;
+
+    AuditJournal journal;
+
+    @AfterEach
+    void tearDown() throws IOException, InterruptedException {
+        journal.close();
+    }
+
+    @Test
+    @DisplayName("must replay appended records in order and follow the ones appended later")
+    void testAppendAndTail() throws IOException, InterruptedException {
+        journal = open(FsyncPolicy.BATCH, 1024 * 1024);
+        AuditTailer tailer = journal.tailer(1);
+        append(1, 3);
+        awaitSequence(3);
+
+        List<AuditRecord> records = poll(tailer);
+        append(4, 2);
+        awaitSequence(5);
+        records.addAll(poll(tailer));
+
+        assertThat(records).extracting(AuditRecord::getSequence).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(records).extracting(AuditRecord::getLoanId).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(records.get(0)).isEqualTo(new AuditRecord(1L, 1000L, AuditRecord.Type.LOAN_CREATED, 1L, 10L, "isbn-1", "Joãozin"));
+        assertThat(poll(tailer)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("must start a new segment when a record does not fit and replay across segments")
+    void testRotation() throws IOException, InterruptedException {
+        journal = open(FsyncPolicy.NONE, 1024);
+        append(1, 100);
+        awaitSequence(100);
+
+        assertThat(JournalSegment.list(directory)).hasSizeGreaterThan(3);
+        assertThat(poll(journal.tailer(1))).extracting(AuditRecord::getLoanId).hasSize(100).doesNotHaveDuplicates();
+        assertThat(poll(journal.tailer(42))).extracting(AuditRecord::getSequence).first().isEqualTo(42L);
+        assertThat(poll(journal.tailer(42))).hasSize(59);
+    }
+
+    @Test
+    @DisplayName("must carry on from the last record after a restart")
+    void testReopen() throws IOException, InterruptedException {
+        journal = open(FsyncPolicy.INTERVAL, 1024);
+        append(1, 30);
+        journal.close();
+
+        journal = open(FsyncPolicy.INTERVAL, 1024);
+        assertThat(journal.getLastSequence()).isEqualTo(30);
+        append(31, 5);
+        awaitSequence(35);
+
+        assertThat(poll(journal.tailer(1))).extracting(AuditRecord::getLoanId).hasSize(35).isSorted();
+    }
+
+    @Test
+    @DisplayName("must discard a torn record at the tail of the journal and write over it")
+    void testTornTailRecovery() throws IOException, InterruptedException {
+        journal = open(FsyncPolicy.BATCH, 1024 * 1024);
+        append(1, 10);
+        journal.close();
+        tearLastRecord();
+
+        journal = open(FsyncPolicy.BATCH, 1024 * 1024);
+        assertThat(journal.getLastSequence()).isEqualTo(9);
+        append(100, 1);
+        awaitSequence(10);
+
+        List<AuditRecord> records = poll(journal.tailer(1));
+        assertThat(records).extracting(AuditRecord::getSequence).containsExactly(1L, 2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L, 10L);
+        assertThat(records.get(9).getLoanId()).isEqualTo(100L);
+    }
+
+    @Test
+    @DisplayName("must refuse a second journal over the same directory")
+    void testExclusive() throws IOException {
+        journal = open(FsyncPolicy.NONE, 1024);
+
+        Throwable exception = catchThrowable(() -> open(FsyncPolicy.NONE, 1024));
+
+        assertThat(exception).isInstanceOf(IllegalStateException.class).hasMessageContaining("already open");
+    }
+
+    @Test
+    @DisplayName("must refuse appends once the writer has died instead of blocking on the full queue")
+    void testWriterFailure() throws IOException, InterruptedException {
+        Set<Thread> before = Thread.getAllStackTraces().keySet();
+        journal = open(FsyncPolicy.NONE, 1024, 4);
+        Thread writer = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> !before.contains(thread) && thread.getName().equals("audit-journal-writer"))
+                .findFirst().get();
+
+        writer.interrupt();
+        writer.join(5000);
+
+        Throwable exception = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> catchThrowable(() -> append(1, 10)));
+        assertThat(exception).isInstanceOf(IllegalStateException.class).hasMessageContaining("failed")
+                .hasCauseInstanceOf(InterruptedException.class);
+    }
+
+    private AuditJournal open(FsyncPolicy fsync, int segmentSize) throws IOException {
+        return open(fsync, segmentSize, new AuditJournalProperties().getQueueCapacity());
+    }
+
+    private AuditJournal open(FsyncPolicy fsync, int segmentSize, int queueCapacity) throws IOException {
+        AuditJournalProperties properties = new AuditJournalProperties();
+        properties.setDirectory(directory.toString());
+        properties.setSegmentSize(DataSize.ofBytes(segmentSize));
+        properties.setFsync(fsync);
+        properties.setQueueCapacity(queueCapacity);
+        AuditJournal opened = new AuditJournal(properties);
+        opened.open();
+        return opened;
+    }
+
+    private void append(long firstLoanId, int count) {
+        for (long loanId = firstLoanId; loanId < firstLoanId + count; loanId++) {
+            journal.append(new AuditRecord(0, 1000L, AuditRecord.Type.LOAN_CREATED, loanId, 10L, "isbn-" + loanId, "Joãozin"));
+        }
+    }
+
+    private void awaitSequence(long sequence) throws InterruptedException {
+        for (int attempt = 0; attempt < 500 && journal.getLastSequence() < sequence; attempt++) {
+            Thread.sleep(10);
+        }
+        assertThat(journal.getLastSequence()).isGreaterThanOrEqualTo(sequence);
+    }
+
+    private List<AuditRecord> poll(AuditTailer tailer) throws IOException {
+        List<AuditRecord> records = new ArrayList<>();
+        tailer.poll(records::add, Integer.MAX_VALUE);
+        return records;
+    }
+
+    private void tearLastRecord() throws IOException {
+        Path segment = JournalSegment.list(directory).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer content = ByteBuffer.allocate((int) channel.size());
+            channel.read(content, 0);
+            int last = 0;
+            for (int position = 0; content.getInt(position) != 0; position += AuditRecordCodec.length(content, position)) {
+                last = position;
+            }
+            channel.write(ByteBuffer.wrap(new byte[]{(byte) ~content.get(last + 20)}), last + 20);
+        }
+    }
+}
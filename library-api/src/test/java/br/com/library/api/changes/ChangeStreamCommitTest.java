@@ -0,0 +1,58 @@
+package br.com.library.api.changes;
+
+import br.com.library.api.model.Book;
+import br.com.library.api.service.BookService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+public class ChangeStreamCommitTest {
+
+    @Autowired
+    ChangeStream changeStream;
+
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    BookService bookService;
+
+    @Test
+    @DisplayName("must stream a change only once its transaction commits")
+    void testAfterCommit() throws InterruptedException {
+        ChangeStreamTest.RecordingEmitter emitter = new ChangeStreamTest.RecordingEmitter(null);
+        changeStream.subscribe(emitter, null);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new ChangeEvent(ChangeEvent.Entity.BOOK, ChangeEvent.Type.UPDATED, 1L, 0L));
+            status.setRollbackOnly();
+        });
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new ChangeEvent(ChangeEvent.Entity.LOAN, ChangeEvent.Type.UPDATED, 2L, 0L));
+            assertThat(emitter.events).isEmpty();
+        });
+        Book book = bookService.save(Book.builder().title("Clean Code").author("Robert C. Martin").isbn("change-stream").build());
+        bookService.delete(book.getId());
+
+        for (int attempt = 0; attempt < 500 && emitter.events.size() < 3; attempt++) {
+            Thread.sleep(10);
+        }
+        assertThat(emitter.names()).containsExactly("loan", "book", "book");
+        assertThat(emitter.events.get(1)).contains("CREATED", "\"entityId\":" + book.getId());
+        assertThat(emitter.events.get(2)).contains("DELETED");
+    }
+}
@@ -0,0 +1,215 @@
+package br.com.library.api.changes;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class ChangeStreamTest {
+
+    ChangeStream stream = new ChangeStream(16, 4, Duration.ofMinutes(1), Duration.ofMinutes(1), Executors.newCachedThreadPool());
+
+    @AfterEach
+    void tearDown() {
+        stream.close();
+    }
+
+    @Test
+    @DisplayName("must send every change to every subscriber in order")
+    void testPublish() throws InterruptedException {
+        RecordingEmitter first = subscribe(null);
+        RecordingEmitter second = subscribe(null);
+
+        publish(ChangeEvent.Entity.BOOK, 1L);
+        publish(ChangeEvent.Entity.LOAN, 2L);
+        publish(ChangeEvent.Entity.BOOK, 3L);
+        await(() -> first.events.size() == 3 && second.events.size() == 3);
+
+        assertThat(first.names()).containsExactly("book", "loan", "book");
+        assertThat(first.ids()).isSorted().doesNotHaveDuplicates();
+        assertThat(second.ids()).isEqualTo(first.ids());
+        assertThat(first.events.get(1)).contains("\"entity\":\"LOAN\"", "\"entityId\":2");
+    }
+
+    @Test
+    @DisplayName("must replay the changes after the last event id a subscriber reconnects with")
+    void testResume() throws InterruptedException {
+        RecordingEmitter live = subscribe(null);
+        for (long id = 1; id <= 4; id++) {
+            publish(ChangeEvent.Entity.BOOK, id);
+        }
+        await(() -> live.events.size() == 4);
+
+        RecordingEmitter resumed = subscribe(live.ids().get(1));
+        await(() -> resumed.events.size() == 2);
+
+        assertThat(resumed.ids()).isEqualTo(live.ids().subList(2, 4));
+        assertThat(resumed.completed).isFalse();
+    }
+
+    @Test
+    @DisplayName("must resync a subscriber whose last event id is no longer buffered and keep streaming to it")
+    void testResumeTooOld() throws InterruptedException {
+        RecordingEmitter live = subscribe(null);
+        for (long id = 1; id <= 10; id++) {
+            publish(ChangeEvent.Entity.BOOK, id);
+            awaitEvents(live, (int) id);
+        }
+
+        RecordingEmitter resumed = subscribe(live.ids().get(0));
+        RecordingEmitter unknown = subscribe("not-an-id");
+        await(() -> resumed.events.size() == 1 && unknown.events.size() == 1);
+        publish(ChangeEvent.Entity.LOAN, 11L);
+        await(() -> resumed.events.size() == 2);
+
+        assertThat(resumed.names()).containsExactly(ChangeStream.RESYNC, "loan");
+        assertThat(resumed.ids().get(0)).isEqualTo(live.ids().get(9));
+        assertThat(unknown.names().get(0)).isEqualTo(ChangeStream.RESYNC);
+        assertThat(resumed.completed).isFalse();
+    }
+
+    @Test
+    @DisplayName("must drop a subscriber that falls too far behind with a resync, without holding the others back")
+    void testSlowSubscriber() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter slow = subscribe(null, release);
+        RecordingEmitter fast = subscribe(null);
+
+        publish(ChangeEvent.Entity.BOOK, 1L);
+        await(() -> slow.blocked);
+        for (long id = 2; id <= 7; id++) {
+            publish(ChangeEvent.Entity.BOOK, id);
+            awaitEvents(fast, (int) id);
+        }
+        release.countDown();
+        await(() -> slow.completed);
+
+        assertThat(slow.names()).containsExactly("book", ChangeStream.RESYNC);
+        assertThat(slow.ids().get(1)).isEqualTo(fast.ids().get(6));
+        assertThat(stream.getSubscriberCount()).isEqualTo(1);
+        assertThat(fast.completed).isFalse();
+    }
+
+    @Test
+    @DisplayName("must drop the subscribers whose send stays blocked, without holding the others back")
+    void testBlockedSend() throws InterruptedException {
+        stream.close();
+        stream = new ChangeStream(16, 4, Duration.ofMinutes(1), Duration.ofMillis(100), Executors.newCachedThreadPool());
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingEmitter first = subscribe(null, release);
+        RecordingEmitter second = subscribe(null, release);
+        RecordingEmitter fast = subscribe(null);
+
+        publish(ChangeEvent.Entity.BOOK, 1L);
+        await(() -> first.blocked && second.blocked);
+        awaitEvents(fast, 1);
+        publish(ChangeEvent.Entity.BOOK, 2L);
+        awaitEvents(fast, 2);
+        await(() -> stream.getSubscriberCount() == 1);
+        release.countDown();
+        await(() -> first.completed && second.completed);
+
+        assertThat(first.names()).containsExactly("book");
+        assertThat(second.names()).containsExactly("book");
+        assertThat(fast.completed).isFalse();
+    }
+
+    private void publish(ChangeEvent.Entity entity, Long id) {
+        stream.publish(new ChangeEvent(entity, ChangeEvent.Type.UPDATED, id, 0L));
+    }
+
+    private RecordingEmitter subscribe(String lastEventId) {
+        return subscribe(lastEventId, null);
+    }
+
+    private RecordingEmitter subscribe(String lastEventId, CountDownLatch release) {
+        RecordingEmitter emitter = new RecordingEmitter(release);
+        stream.subscribe(emitter, lastEventId);
+        return emitter;
+    }
+
+    // a burst longer than the allowed lag would leave any subscriber behind, so tests pace the ones they keep
+    private static void awaitEvents(RecordingEmitter emitter, int count) throws InterruptedException {
+        await(() -> emitter.events.size() == count);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        for (int attempt = 0; attempt < 500 && !condition.getAsBoolean(); attempt++) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    static class RecordingEmitter extends SseEmitter {
+
+        final List<String> events = new CopyOnWriteArrayList<>();
+
+        final CountDownLatch release;
+
+        volatile boolean blocked;
+
+        volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            StringBuilder text = new StringBuilder();
+            builder.build().forEach(part -> text.append(part.getData() instanceof ChangeEvent
+                    ? json((ChangeEvent) part.getData()) : part.getData()));
+            if (release != null && events.isEmpty()) {
+                blocked = true;
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            events.add(text.toString());
+        }
+
+        @Override
+        public synchronized void complete() {
+            completed = true;
+        }
+
+        List<String> names() {
+            return field("event:");
+        }
+
+        List<String> ids() {
+            return field("id:");
+        }
+
+        private List<String> field(String prefix) {
+            return events.stream()
+                    .map(event -> Arrays.stream(event.split("\n")).filter(line -> line.startsWith(prefix)).findFirst().orElse(prefix))
+                    .map(line -> line.substring(prefix.length()))
+                    .collect(Collectors.toList());
+        }
+
+        private static String json(ChangeEvent event) {
+            return String.format("{\"entity\":\"%s\",\"type\":\"%s\",\"entityId\":%d}",
+                    event.getEntity(), event.getType(), event.getEntityId());
+        }
+    }
+}
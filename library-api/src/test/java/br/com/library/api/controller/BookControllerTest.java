@@ -0,0 +1,549 @@
+package br.com.library.api.controller;
+
+import br.com.library.api.dto.BookDTO;
+import br.com.library.api.dto.BookImportFailureDTO;
+import br.com.library.api.dto.BookImportResultDTO;
+import br.com.library.api.exception.BusinessException;
+import br.com.library.api.model.Book;
+import br.com.library.api.popularity.BookLoanCount;
+import br.com.library.api.popularity.BookPopularity;
+import br.com.library.api.service.BookService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.hamcrest.Matchers;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("Test")
+@WebMvcTest(controllers = {BookController.class})
+@AutoConfigureMockMvc
+@Import(SimpleMeterRegistry.class)
+public class BookControllerTest {
+
+    private static String BOOK_API = "/api/books";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @MockBean
+    BookService bookService;
+
+    @MockBean
+    BookPopularity bookPopularity;
+
+    @Test
+    @DisplayName("Successfully create a book")
+    void testCreateBook() throws Exception {
+        BookDTO bookDTO = createNewBook();
+
+        BDDMockito.given(bookService.save(Mockito.any(Book.class)))
+                .willReturn(Book.builder().id(1L).title("Clean Code").author("Robert Cecil Martin").isbn("121321").build());
+
+        String json = new ObjectMapper().writeValueAsString(bookDTO);
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .post(BOOK_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mockMvc
+                .perform(requestBuilder)
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.jsonPath("id").value(1L))
+                .andExpect(MockMvcResultMatchers.jsonPath("title").value(bookDTO.getTitle()))
+                .andExpect(MockMvcResultMatchers.jsonPath("author").value(bookDTO.getAuthor()))
+                .andExpect(MockMvcResultMatchers.jsonPath("isbn").value(bookDTO.getIsbn()));
+    }
+
+    @Test
+    @DisplayName("Throws error for insufficient data in book creation")
+    void testCreateInvalidBook() throws Exception {
+        String json = new ObjectMapper().writeValueAsString(new BookDTO());
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .post(BOOK_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mockMvc
+                .perform(requestBuilder)
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("errors", hasSize(3)));
+
+    }
+
+    @Test
+    @DisplayName("the ISBN cannot be repeated")
+    void testCreateBookWithDuplicatedIsbn() throws Exception {
+
+        BookDTO dto = createNewBook();
+        String json = new ObjectMapper().writeValueAsString(dto);
+        final String msgError = "ISBN already registered";
+        BDDMockito.given(bookService.save(Mockito.any(Book.class))).willThrow(new BusinessException(msgError));
+        Counter errors = meterRegistry.counter(ApplicationControllerAdvice.ERROR_COUNTER, "exception", "BusinessException");
+        double errorsBefore = errors.count();
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .post(BOOK_API)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mockMvc
+                .perform(requestBuilder)
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("errors", hasSize(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("errors[0]").value(msgError));
+
+        assertThat(errors.count()).isEqualTo(errorsBefore + 1);
+    }
+
+    @Test
+    @DisplayName("must import books in bulk")
+    void testImportBooks() throws Exception {
+        String json = new ObjectMapper().writeValueAsString(Arrays.asList(createNewBook(), new BookDTO()));
+
+        BookImportResultDTO result = new BookImportResultDTO(2, 1,
+                Arrays.asList(new BookImportFailureDTO(1, null, "Title, author and ISBN are required")));
+        BDDMockito.given(bookService.importBooks(Mockito.anyList())).willReturn(result);
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .post(BOOK_API.concat("/import"))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(json);
+
+        mockMvc
+                .perform(requestBuilder)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("received").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("imported").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("failures", hasSize(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("failures[0].index").value(1));
+    }
+
+    @Test
+    @DisplayName("must export all books as newline-delimited JSON")
+    @SuppressWarnings("unchecked")
+    void testExportBooks() throws Exception {
+        Book first = Book.builder().id(1L).title("Clean Code").author("Robert Cecil Martin").isbn("121321").build();
+        Book second = Book.builder().id(2L).title("Refactoring").author("Martin Fowler").isbn("121322").build();
+        BDDMockito.willAnswer(invocation -> {
+            Consumer<Book> consumer = invocation.getArgument(0);
+            consumer.accept(first);
+            consumer.accept(second);
+            return null;
+        }).given(bookService).exportAll(Mockito.any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/export")))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(MockMvcResultMatchers.content().string(
+                        "{\"id\":1,\"title\":\"Clean Code\",\"author\":\"Robert Cecil Martin\",\"isbn\":\"121321\"}\n" +
+                        "{\"id\":2,\"title\":\"Refactoring\",\"author\":\"Martin Fowler\",\"isbn\":\"121322\"}\n"));
+    }
+
+    @Test
+    @DisplayName("must get information from the book")
+    void testGetBookDetailsTest() throws Exception {
+
+        Long id = 1L;
+
+        Book book = Book.builder()
+                                .id(id)
+                                .title(createNewBook().getTitle())
+                                .author(createNewBook().getAuthor())
+                                .isbn(createNewBook().getIsbn()).build();
+
+        BDDMockito.given(bookService.getById(id)).willReturn(Optional.of(book));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(BOOK_API.concat("/" + id))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc
+                .perform(requestBuilder)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("id").value(id))
+                .andExpect(MockMvcResultMatchers.jsonPath("title").value(createNewBook().getTitle()))
+                .andExpect(MockMvcResultMatchers.jsonPath("author").value(createNewBook().getAuthor()))
+                .andExpect(MockMvcResultMatchers.jsonPath("isbn").value(createNewBook().getIsbn()));
+    }
+
+    @Test
+    @DisplayName("should return not found if the book ID does not exist.")
+    void testBookNotFound() throws Exception {
+        BDDMockito.given(bookService.getById(anyLong())).willReturn(Optional.empty());
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(BOOK_API.concat("/" + 1))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc
+                .perform(requestBuilder)
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("must delete a book")
+    void testDeleteBook() throws Exception {
+        BDDMockito.given(bookService.getById(anyLong())).willReturn(Optional.of(Book.builder().id(1L).build()));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .delete(BOOK_API.concat("/" + 1));
+
+        mockMvc
+                .perform(requestBuilder)
+                .andExpect(MockMvcResultMatchers.status().isNoContent());
+    }
+
+    @Test
+    @DisplayName("should return not found when a book does not exist to delete")
+    void testDeleteNonExistentBook() throws Exception {
+        BDDMockito.given(bookService.getById(anyLong())).willReturn(Optional.empty());
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .delete(BOOK_API.concat("/" + 1));
+
+        mockMvc
+                .perform(requestBuilder)
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("must update a book")
+    void testUpdateBook() throws Exception {
+        Long id = 1L;
+
+        String json = new ObjectMapper().writeValueAsString(createNewBook());
+
+        Book updatingBook = Book.builder().id(1L).title("new title").author("new author").isbn("123").build();
+
+        BDDMockito.given(bookService.getById(id)).willReturn(Optional.of(updatingBook));
+
+        Book updateBook = Book.builder().id(1L).title("Clean Code").author("Robert Cecil Martin").isbn("121321").build();
+        BDDMockito.given(bookService.update(updatingBook)).willReturn(updateBook);
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                                                    .put(BOOK_API.concat("/" + id))
+                                                    .content(json)
+                                                    .accept(MediaType.APPLICATION_JSON)
+                                                    .contentType(MediaType.APPLICATION_JSON);
+
+        mockMvc.perform(requestBuilder)
+                    .andExpect(MockMvcResultMatchers.status().isOk())
+                    .andExpect(MockMvcResultMatchers.jsonPath("id").value(id))
+                    .andExpect(MockMvcResultMatchers.jsonPath("title").value(createNewBook().getTitle()))
+                    .andExpect(MockMvcResultMatchers.jsonPath("author").value(createNewBook().getAuthor()))
+                    .andExpect(MockMvcResultMatchers.jsonPath("isbn").value(createNewBook().getIsbn()));
+    }
+
+    @Test
+    @DisplayName("should return 404 when trying to update a book that doesn't exist")
+    void testUpdateNonExistentBook() throws Exception {
+
+        String json = new ObjectMapper().writeValueAsString(createNewBook());
+
+        BDDMockito.given(bookService.getById(Mockito.anyLong()))
+                .willReturn(Optional.empty());
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .put(BOOK_API.concat("/" + 1))
+                .content(json)
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON);
+
+        mockMvc.perform(requestBuilder)
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("must tag the book details with its version")
+    void testGetBookDetailsETag() throws Exception {
+        Book book = Book.builder().id(1L).title("Clean Code").author("Robert Cecil Martin").isbn("121321").version(3L).build();
+        BDDMockito.given(bookService.getById(1L)).willReturn(Optional.of(book));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/1")).accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"3\""));
+    }
+
+    @Test
+    @DisplayName("must answer a matching If-None-Match with 304 without loading the book")
+    void testGetBookDetailsNotModified() throws Exception {
+        BDDMockito.given(bookService.getVersion(1L)).willReturn(Optional.of(3L));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/1"))
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(MockMvcResultMatchers.content().string(""));
+
+        Mockito.verify(bookService, Mockito.never()).getById(Mockito.anyLong());
+    }
+
+    @Test
+    @DisplayName("must refuse an update whose If-Match is stale")
+    void testUpdateBookPreconditionFailed() throws Exception {
+        Book book = Book.builder().id(1L).title("Clean Code").author("Robert Cecil Martin").isbn("121321").version(4L).build();
+        BDDMockito.given(bookService.getById(1L)).willReturn(Optional.of(book));
+
+        mockMvc.perform(MockMvcRequestBuilders.put(BOOK_API.concat("/1"))
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+
+        Mockito.verify(bookService, Mockito.never()).update(Mockito.any(Book.class));
+    }
+
+    @Test
+    @DisplayName("must refuse an update that loses the race after its If-Match was checked")
+    void testUpdateBookConcurrentChange() throws Exception {
+        Book book = Book.builder().id(1L).title("Clean Code").author("Robert Cecil Martin").isbn("121321").version(3L).build();
+        BDDMockito.given(bookService.getById(1L)).willReturn(Optional.of(book));
+        BDDMockito.given(bookService.update(book)).willThrow(new ObjectOptimisticLockingFailureException(Book.class, 1L));
+
+        mockMvc.perform(MockMvcRequestBuilders.put(BOOK_API.concat("/1"))
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isPreconditionFailed());
+    }
+
+    @Test
+    @DisplayName("must update a book whose If-Match is current and return the new tag")
+    void testUpdateBookIfMatch() throws Exception {
+        Book book = Book.builder().id(1L).title("Clean Code").author("Robert Cecil Martin").isbn("121321").version(3L).build();
+        Book updated = Book.builder().id(1L).title("Clean Code").author("Robert Cecil Martin").isbn("121321").version(4L).build();
+        BDDMockito.given(bookService.getById(1L)).willReturn(Optional.of(book));
+        BDDMockito.given(bookService.update(book)).willReturn(updated);
+
+        mockMvc.perform(MockMvcRequestBuilders.put(BOOK_API.concat("/1"))
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.ETAG, "\"4\""));
+    }
+
+    @Test
+    @DisplayName("must answer an unchanged page of books with 304")
+    void testFindBookNotModified() throws Exception {
+        Book book = Book.builder().id(1L).title("Clean Code").author("Robert Cecil Martin").isbn("121321").version(3L).build();
+        BDDMockito.given(bookService.find(Mockito.any(Book.class), Mockito.any(Pageable.class)))
+                .willReturn(new PageImpl<Book>(Arrays.asList(book), PageRequest.of(0, 100), 1));
+
+        String eTag = mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("?page=0&size=100")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("?page=0&size=100")).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified());
+
+        book.setVersion(4L);
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("?page=0&size=100")).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+    }
+
+    @Test
+    @DisplayName("must filter book")
+    void testFindBook() throws Exception {
+
+        Long id = 1L;
+
+        Book book = Book.builder()
+                .id(id)
+                .title(createNewBook().getTitle())
+                .author(createNewBook().getAuthor())
+                .isbn(createNewBook().getIsbn()).build();
+
+        BDDMockito.given(bookService.find(Mockito.any(Book.class), Mockito.any(Pageable.class)))
+                .willReturn(new PageImpl<Book>(Arrays.asList(book), PageRequest.of(0, 100), 1));
+
+        String queryString = String.format("?title=%s&author=%s&page=0&size=100", book.getTitle(), book.getAuthor());
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(BOOK_API.concat(queryString))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc.perform(requestBuilder)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("content", Matchers.hasSize(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("totalElements").value(1))
+                .andExpect(MockMvcResultMatchers.jsonPath("pageable.pageSize").value(100))
+                .andExpect(MockMvcResultMatchers.jsonPath("pageable.pageNumber").value(0));
+    }
+
+    @Test
+    @DisplayName("must filter book in CBOR when the client asks for it")
+    void testFindBookCbor() throws Exception {
+        Book book = Book.builder().id(1L).title("Clean Code").author("Robert Cecil Martin").isbn("121321").build();
+        BDDMockito.given(bookService.find(Mockito.any(Book.class), Mockito.any(Pageable.class)))
+                .willReturn(new PageImpl<Book>(Arrays.asList(book), PageRequest.of(0, 100), 1));
+        MediaType cbor = MediaType.valueOf("application/cbor");
+
+        byte[] body = mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("?page=0&size=100")).accept(cbor))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().contentType(cbor))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode page = new CBORMapper().readTree(body);
+        assertThat(page.get("totalElements").asLong()).isEqualTo(1);
+        assertThat(page.get("content").get(0).get("isbn").asText()).isEqualTo("121321");
+    }
+
+    @Test
+    @DisplayName("must send the errors in Smile when the client asks for it")
+    void testCreateBookSmileErrors() throws Exception {
+        BDDMockito.given(bookService.save(Mockito.any(Book.class))).willThrow(new BusinessException("ISBN already registered"));
+        MediaType smile = MediaType.valueOf("application/x-jackson-smile");
+
+        byte[] body = mockMvc.perform(MockMvcRequestBuilders.post(BOOK_API)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(smile)
+                        .content(new ObjectMapper().writeValueAsString(createNewBook())))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.content().contentType(smile))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(new SmileMapper().readTree(body).get("errors").get(0).asText()).isEqualTo("ISBN already registered");
+    }
+
+    @Test
+    @DisplayName("must filter book without counting the total")
+    void testFindBookSlice() throws Exception {
+        Book book = Book.builder().id(1L).title("Clean Code").author("Robert Cecil Martin").isbn("121321").build();
+
+        BDDMockito.given(bookService.findSlice(Mockito.any(Book.class), Mockito.any(Pageable.class)))
+                .willReturn(new SliceImpl<Book>(Arrays.asList(book), PageRequest.of(0, 1), true));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(BOOK_API.concat("?title=Clean&page=0&size=1&count=false"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc.perform(requestBuilder)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("content", Matchers.hasSize(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("last").value(false))
+                .andExpect(MockMvcResultMatchers.jsonPath("totalElements").doesNotExist())
+                .andExpect(MockMvcResultMatchers.jsonPath("pageable.pageSize").value(1));
+
+        Mockito.verify(bookService, Mockito.never()).find(Mockito.any(Book.class), Mockito.any(Pageable.class));
+    }
+
+    @Test
+    @DisplayName("must filter book by cursor")
+    void testFindBookByCursor() throws Exception {
+        Book first = Book.builder().id(1L).title("Clean Code").author("Robert Cecil Martin").isbn("121321").build();
+        Book second = Book.builder().id(2L).title("Clean Coder").author("Robert Cecil Martin").isbn("121322").build();
+
+        BDDMockito.given(bookService.findAfter(Mockito.any(Book.class), Mockito.eq(0L), Mockito.eq(2)))
+                .willReturn(new SliceImpl<Book>(Arrays.asList(first, second), PageRequest.of(0, 2), true));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(BOOK_API.concat("?author=Martin&cursor=&size=2"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        String nextCursor = PageCursors.encode(2L);
+        mockMvc.perform(requestBuilder)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("content", Matchers.hasSize(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("size").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("nextCursor").value(nextCursor));
+
+        BDDMockito.given(bookService.findAfter(Mockito.any(Book.class), Mockito.eq(2L), Mockito.eq(2)))
+                .willReturn(new SliceImpl<Book>(Arrays.asList(), PageRequest.of(0, 2), false));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("?cursor=" + nextCursor + "&size=2")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("content", Matchers.hasSize(0)))
+                .andExpect(MockMvcResultMatchers.jsonPath("nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("should return bad request for an invalid cursor")
+    void testFindBookByInvalidCursor() throws Exception {
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(BOOK_API.concat("?cursor=not-a-cursor"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc.perform(requestBuilder)
+                .andExpect(MockMvcResultMatchers.status().isBadRequest())
+                .andExpect(MockMvcResultMatchers.jsonPath("errors[0]").value("Invalid cursor"));
+    }
+
+    @Test
+    @DisplayName("must list the most borrowed books, over all time and over the last days")
+    void testFindPopularBooks() throws Exception {
+        BDDMockito.given(bookPopularity.getWindowDays()).willReturn(30);
+        BDDMockito.given(bookPopularity.top(2)).willReturn(Arrays.asList(new BookLoanCount(2L, 9), new BookLoanCount(1L, 4)));
+        BDDMockito.given(bookPopularity.top(2, 7)).willReturn(Arrays.asList(new BookLoanCount(1L, 3)));
+        BDDMockito.given(bookService.getById(1L))
+                .willReturn(Optional.of(Book.builder().id(1L).title("Clean Code").author("Robert C. Martin").isbn("123").build()));
+        BDDMockito.given(bookService.getById(2L))
+                .willReturn(Optional.of(Book.builder().id(2L).title("Refactoring").author("Martin Fowler").isbn("456").build()));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/popular?size=2")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$", hasSize(2)))
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].book.title").value("Refactoring"))
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].loans").value(9))
+                .andExpect(MockMvcResultMatchers.jsonPath("[1].book.id").value(1));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/popular?size=2&days=7")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$", hasSize(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("[0].loans").value(3));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API.concat("/popular?days=31")))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    private BookDTO createNewBook() {
+        return BookDTO.builder().title("Clean Code").author("Robert Cecil Martin").isbn("121321").build();
+    }
+}
@@ -0,0 +1,48 @@
+package br.com.library.api.controller;
+
+import br.com.library.api.changes.ChangeStream;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = {ChangeController.class})
+@AutoConfigureMockMvc
+@Import(SimpleMeterRegistry.class)
+public class ChangeControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    ChangeStream changeStream;
+
+    @Test
+    @DisplayName("must open a change stream from the last event id the client saw")
+    void testStream() throws Exception {
+        BDDMockito.given(changeStream.subscribe("42")).willReturn(new SseEmitter());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/changes")
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .header("Last-Event-ID", "42"))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted());
+
+        Mockito.verify(changeStream).subscribe("42");
+    }
+}
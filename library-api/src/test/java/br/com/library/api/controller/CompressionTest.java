@@ -0,0 +1,77 @@
+package br.com.library.api.controller;
+
+import br.com.library.api.model.Book;
+import br.com.library.api.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class CompressionTest {
+
+    @LocalServerPort
+    int port;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @BeforeEach
+    void setUp() {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            books.add(Book.builder().title("Clean Code").author("Robert C. Martin").isbn("isbn-" + i).build());
+        }
+        bookRepository.saveAll(books);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("must gzip a large page in every format when the client accepts it")
+    void testLargePageCompressed() throws IOException {
+        for (String mediaType : new String[]{"application/json", "application/cbor", "application/x-jackson-smile"}) {
+            HttpURLConnection connection = get("/api/books?page=0&size=500", mediaType, "gzip");
+
+            assertThat(connection.getResponseCode()).isEqualTo(200);
+            assertThat(connection.getContentType()).isEqualTo(mediaType);
+            assertThat(connection.getContentEncoding()).as(mediaType).isEqualTo("gzip");
+        }
+    }
+
+    @Test
+    @DisplayName("must not gzip for a client that does not accept it")
+    void testPlainClientUncompressed() throws IOException {
+        assertThat(get("/api/books?page=0&size=500", "application/json", null).getContentEncoding()).isNull();
+    }
+
+    private HttpURLConnection get(String path, String accept, String acceptEncoding) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + port + path).openConnection();
+        connection.setRequestProperty(HttpHeaders.ACCEPT, accept);
+        if (acceptEncoding != null) {
+            connection.setRequestProperty(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        connection.getResponseCode();
+        return connection;
+    }
+}
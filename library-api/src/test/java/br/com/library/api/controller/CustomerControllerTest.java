@@ -0,0 +1,70 @@
+package br.com.library.api.controller;
+
+import br.com.library.api.model.Customer;
+import br.com.library.api.service.CustomerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.BDDMockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@WebMvcTest(controllers = {CustomerController.class})
+@AutoConfigureMockMvc
+@Import(SimpleMeterRegistry.class)
+public class CustomerControllerTest {
+
+    private static String CUSTOMER_API = "/api/customers";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @MockBean
+    CustomerService customerService;
+
+    @Test
+    @DisplayName("must summarize the loans of a customer by id and by name")
+    void testGetSummary() throws Exception {
+        Customer customer = Customer.builder().id(1L).name("Joãozin").activeLoans(2).totalLoans(5)
+                .lastLoanDate(LocalDate.of(2024, 3, 10)).build();
+        BDDMockito.given(customerService.getById(1L)).willReturn(Optional.of(customer));
+        BDDMockito.given(customerService.getByName("Joãozin")).willReturn(Optional.of(customer));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMER_API.concat("/1")))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("name").value("Joãozin"))
+                .andExpect(MockMvcResultMatchers.jsonPath("activeLoans").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("totalLoans").value(5))
+                .andExpect(MockMvcResultMatchers.jsonPath("lastLoanDate").value("2024-03-10"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMER_API).param("name", "Joãozin"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("id").value(1));
+    }
+
+    @Test
+    @DisplayName("must return not found for an unknown customer")
+    void testGetSummaryNotFound() throws Exception {
+        BDDMockito.given(customerService.getById(1L)).willReturn(Optional.empty());
+        BDDMockito.given(customerService.getByName("Mariazinha")).willReturn(Optional.empty());
+
+        mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMER_API.concat("/1")))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+        mockMvc.perform(MockMvcRequestBuilders.get(CUSTOMER_API).param("name", "Mariazinha"))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
+    }
+}
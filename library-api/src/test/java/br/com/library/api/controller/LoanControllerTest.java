@@ -1,16 +1,22 @@
 package br.com.library.api.controller;
 
+import br.com.library.api.dto.BulkReturnDTO;
+import br.com.library.api.dto.BulkReturnOutcomeDTO;
+import br.com.library.api.dto.BulkReturnResultDTO;
 import br.com.library.api.dto.LoanDTO;
 import br.com.library.api.dto.LoanFilterDTO;
 import br.com.library.api.dto.ReturnedLoadDTO;
 import br.com.library.api.exception.BusinessException;
 import br.com.library.api.model.Book;
+import br.com.library.api.model.Customer;
 import br.com.library.api.model.Loan;
 import br.com.library.api.service.BookService;
 import br.com.library.api.service.LoanService;
 import br.com.library.api.service.LoanServiceTest;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.hamcrest.Matchers;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,13 +26,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
@@ -34,13 +43,16 @@ import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 
 @ExtendWith(SpringExtension.class)
 @ActiveProfiles("Test")
 @WebMvcTest(controllers = {LoanController.class})
 @AutoConfigureMockMvc
+@Import(SimpleMeterRegistry.class)
 public class LoanControllerTest {
 
     private static final String  LOAN_API = "/api/loans";
@@ -64,7 +76,7 @@ public class LoanControllerTest {
         Book book = Book.builder().id(1L).isbn(dto.getIsbn()).build();
         BDDMockito.given(bookService.getBookByIsbn(dto.getIsbn())).willReturn(Optional.of(book));
 
-        Loan loan = Loan.builder().id(1L).customer("Jaozin").book(book).loanDate(LocalDate.now()).build();
+        Loan loan = Loan.builder().id(1L).customer(Customer.builder().name("Jaozin").build()).book(book).loanDate(LocalDate.now()).build();
         BDDMockito.given(loanService.save(Mockito.any(Loan.class))).willReturn(loan);
 
         MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
@@ -122,6 +134,28 @@ public class LoanControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("errors[0]").value("Book already loaned"));
     }
 
+    @Test
+    @DisplayName("must export all loans as newline-delimited JSON")
+    @SuppressWarnings("unchecked")
+    void testExportLoans() throws Exception {
+        Loan loan = LoanServiceTest.createLoan();
+        loan.setBook(Book.builder().id(1L).isbn("123").build());
+        BDDMockito.willAnswer(invocation -> {
+            invocation.<Consumer<Loan>>getArgument(0).accept(loan);
+            return null;
+        }).given(loanService).exportAll(Mockito.any(Consumer.class));
+
+        MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get(LOAN_API.concat("/export")))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.content().string(
+                        "{\"id\":1,\"isbn\":null,\"customer\":\"Joaozin\"," +
+                        "\"book\":{\"id\":1,\"title\":null,\"author\":null,\"isbn\":\"123\"}}\n"));
+    }
+
     @Test
     @DisplayName("must return a book")
     void testReturnBook() throws Exception {
@@ -156,6 +190,27 @@ public class LoanControllerTest {
         ).andExpect(MockMvcResultMatchers.status().isNotFound());
     }
 
+    @Test
+    @DisplayName("must return loans in bulk with an outcome per item")
+    void testReturnBooksInBulk() throws Exception {
+        BulkReturnDTO dto = BulkReturnDTO.builder().ids(Arrays.asList(1L, 2L)).isbns(Arrays.asList("123")).build();
+        BulkReturnResultDTO result = BulkReturnResultDTO.builder().requested(3).returned(2).outcomes(Arrays.asList(
+                new BulkReturnOutcomeDTO(1L, "321", BulkReturnOutcomeDTO.Status.RETURNED),
+                new BulkReturnOutcomeDTO(2L, null, BulkReturnOutcomeDTO.Status.NOT_FOUND),
+                new BulkReturnOutcomeDTO(3L, "123", BulkReturnOutcomeDTO.Status.RETURNED))).build();
+        BDDMockito.given(loanService.returnLoans(dto.getIds(), dto.getIsbns())).willReturn(result);
+
+        mockMvc.perform(patch(LOAN_API)
+                .accept(MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(new ObjectMapper().writeValueAsString(dto))
+        )
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("returned").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("outcomes", Matchers.hasSize(3)))
+                .andExpect(MockMvcResultMatchers.jsonPath("outcomes[1].status").value("NOT_FOUND"));
+    }
+
     @Test
     @DisplayName("must filter loan")
     void testFindLoan() throws Exception {
@@ -168,7 +223,7 @@ public class LoanControllerTest {
         BDDMockito.given(loanService.find(Mockito.any(LoanFilterDTO.class), Mockito.any(Pageable.class)))
                 .willReturn(new PageImpl<Loan>(Arrays.asList(loan), PageRequest.of(0, 100), 1));
 
-        String queryString = String.format("?isbn=%s&customer=%s&page=0&size=100", loan.getBook().getIsbn(), loan.getCustomer());
+        String queryString = String.format("?isbn=%s&customer=%s&page=0&size=100", loan.getBook().getIsbn(), loan.getCustomer().getName());
 
         MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
                 .get(LOAN_API.concat(queryString))
@@ -181,4 +236,87 @@ public class LoanControllerTest {
                 .andExpect(MockMvcResultMatchers.jsonPath("pageable.pageSize").value(100))
                 .andExpect(MockMvcResultMatchers.jsonPath("pageable.pageNumber").value(0));
     }
+
+    @Test
+    @DisplayName("must filter loan without counting the total")
+    void testFindLoanSlice() throws Exception {
+        Loan loan = LoanServiceTest.createLoan();
+        loan.setBook(Book.builder().id(1L).isbn("123").build());
+
+        BDDMockito.given(loanService.findSlice(Mockito.any(LoanFilterDTO.class), Mockito.any(Pageable.class)))
+                .willReturn(new SliceImpl<Loan>(Arrays.asList(loan), PageRequest.of(0, 100), false));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(LOAN_API.concat("?isbn=123&page=0&size=100&count=false"))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc.perform(requestBuilder)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("content", Matchers.hasSize(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("last").value(true))
+                .andExpect(MockMvcResultMatchers.jsonPath("totalElements").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("must filter loan by cursor")
+    void testFindLoanByCursor() throws Exception {
+        Loan loan = LoanServiceTest.createLoan();
+        loan.setId(7L);
+        loan.setBook(Book.builder().id(1L).isbn("123").build());
+
+        BDDMockito.given(loanService.findAfter(Mockito.any(LoanFilterDTO.class), Mockito.eq(0L), Mockito.eq(20)))
+                .willReturn(new SliceImpl<Loan>(Arrays.asList(loan), PageRequest.of(0, 20), true));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(LOAN_API.concat("?customer=Joaozin&cursor="))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc.perform(requestBuilder)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("content", Matchers.hasSize(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("content[0].book.isbn").value("123"))
+                .andExpect(MockMvcResultMatchers.jsonPath("nextCursor").value(PageCursors.encode(7L)));
+    }
+
+    @Test
+    @DisplayName("must read a loan in CBOR and answer in CBOR")
+    void testCreateLoanCbor() throws Exception {
+        MediaType cbor = MediaType.valueOf("application/cbor");
+        LoanDTO dto = LoanDTO.builder().isbn("123").customer("Joãozin").build();
+        Book book = Book.builder().id(1L).isbn("123").build();
+        BDDMockito.given(bookService.getBookByIsbn("123")).willReturn(Optional.of(book));
+        BDDMockito.given(loanService.save(Mockito.any(Loan.class)))
+                .willReturn(Loan.builder().id(1L).customer(Customer.builder().name("Joãozin").build()).book(book).loanDate(LocalDate.now()).build());
+
+        byte[] body = mockMvc.perform(MockMvcRequestBuilders.post(LOAN_API)
+                        .contentType(cbor)
+                        .accept(cbor)
+                        .content(new CBORMapper().writeValueAsBytes(dto)))
+                .andExpect(MockMvcResultMatchers.status().isCreated())
+                .andExpect(MockMvcResultMatchers.content().contentType(cbor))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(new CBORMapper().readValue(body, Long.class)).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("must list overdue loans by cursor")
+    void testFindOverdueLoans() throws Exception {
+        Loan loan = LoanServiceTest.createLoan();
+        loan.setId(9L);
+        loan.setOverdue(true);
+
+        BDDMockito.given(loanService.findOverdueAfter(7L, 50))
+                .willReturn(new SliceImpl<Loan>(Arrays.asList(loan), PageRequest.of(0, 50), false));
+
+        MockHttpServletRequestBuilder requestBuilder = MockMvcRequestBuilders
+                .get(LOAN_API.concat("/overdue?size=50&cursor=" + PageCursors.encode(7L)))
+                .accept(MediaType.APPLICATION_JSON);
+
+        mockMvc.perform(requestBuilder)
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("content", Matchers.hasSize(1)))
+                .andExpect(MockMvcResultMatchers.jsonPath("content[0].id").value(9))
+                .andExpect(MockMvcResultMatchers.jsonPath("nextCursor").doesNotExist());
+    }
 }
@@ -0,0 +1,110 @@
+package br.com.library.api.controller;
+
+import br.com.library.api.model.Book;
+import br.com.library.api.model.Customer;
+import br.com.library.api.model.Loan;
+import br.com.library.api.repository.BookRepository;
+import br.com.library.api.repository.CustomerRepository;
+import br.com.library.api.repository.LoanRepository;
+import org.hamcrest.Matchers;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+public class LoanSearchStatementsTest {
+
+    private static final String LOAN_API = "/api/loans";
+
+    private static final int LOANS = 30;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = customerRepository.save(Customer.builder().name("Joãozin").build());
+        for (int i = 0; i < LOANS; i++) {
+            Book book = bookRepository.save(Book.builder().title("Clean Code").author("Robert C. Martin").isbn("isbn-" + i).build());
+            loanRepository.save(Loan.builder().book(book).customer(customer).loanDate(LocalDate.now()).build());
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        loanRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("must load a page of loans and their books with one query plus the count")
+    void testFindLoansStatements() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(LOAN_API.concat("?customer=Joãozin&page=0&size=" + LOANS))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("content", Matchers.hasSize(LOANS)))
+                .andExpect(MockMvcResultMatchers.jsonPath("content[29].book.isbn").exists());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("must load a slice of loans and their books with one query")
+    void testFindLoansSliceStatements() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(LOAN_API.concat("?customer=Joãozin&page=0&count=false&size=" + LOANS))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("content", Matchers.hasSize(LOANS)));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("must load a cursor page of loans and their books with one query")
+    void testFindLoansByCursorStatements() throws Exception {
+        mockMvc.perform(MockMvcRequestBuilders.get(LOAN_API.concat("?customer=Joãozin&cursor=&size=" + LOANS))
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("content", Matchers.hasSize(LOANS)));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.library.api.controller;
+
+import br.com.library.api.dto.BookDTO;
+import br.com.library.api.repository.BookRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+public class PrometheusScrapeTest {
+
+    private static final String BOOK_API = "/api/books";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("must expose controller, service, repository, error and pool metrics to a Prometheus scrape")
+    void testScrape() throws Exception {
+        String json = new ObjectMapper().writeValueAsString(
+                BookDTO.builder().title("Clean Code").author("Robert C. Martin").isbn("scrape-1").build());
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(MockMvcRequestBuilders.post(BOOK_API).contentType(MediaType.APPLICATION_JSON).content(json));
+        }
+        mockMvc.perform(MockMvcRequestBuilders.get(BOOK_API).param("author", "martin"))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+
+        String scrape = mockMvc.perform(MockMvcRequestBuilders.get("/actuator/prometheus"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertThat(scrape)
+                .contains("http_server_requests_seconds{")
+                .containsPattern("library_service_seconds\\{class=\"BookServiceImpl\",exception=\"none\",method=\"save\",quantile=\"0.99\"")
+                .containsPattern("spring_data_repository_invocations_seconds\\{.*method=\"existsByIsbn\",repository=\"BookRepository\",.*quantile=\"0.95\"")
+                .contains("library_api_errors_total{exception=\"BusinessException\",}")
+                .contains("hikaricp_connections_active{");
+    }
+}
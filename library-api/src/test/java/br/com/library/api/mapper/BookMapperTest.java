@@ -0,0 +1,51 @@
+package br.com.library.api.mapper;
+
+import br.com.library.api.dto.BookDTO;
+import br.com.library.api.model.Book;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BookMapperTest {
+
+    BookMapper bookMapper = Mappers.getMapper(BookMapper.class);
+
+    ModelMapper modelMapper = new ModelMapper();
+
+    @Test
+    @DisplayName("must map a book to the same DTO as ModelMapper")
+    void testToDto() {
+        Book book = Book.builder().id(1L).title("Clean Code").author("Robert Cecil Martin").isbn("121321").build();
+
+        BookDTO dto = bookMapper.toDto(book);
+
+        assertThat(dto).isEqualTo(modelMapper.map(book, BookDTO.class));
+        assertThat(dto.getId()).isEqualTo(1L);
+        assertThat(dto.getTitle()).isEqualTo("Clean Code");
+        assertThat(dto.getAuthor()).isEqualTo("Robert Cecil Martin");
+        assertThat(dto.getIsbn()).isEqualTo("121321");
+    }
+
+    @Test
+    @DisplayName("must map a DTO to the same book as ModelMapper")
+    void testToEntity() {
+        BookDTO dto = BookDTO.builder().title("Clean Code").author("Robert Cecil Martin").isbn("121321").build();
+
+        Book book = bookMapper.toEntity(dto);
+
+        assertThat(book).isEqualTo(modelMapper.map(dto, Book.class));
+        assertThat(book.getId()).isNull();
+        assertThat(book.getLoans()).isNull();
+    }
+
+    @Test
+    @DisplayName("must keep empty filters empty")
+    void testEmptyDtoToEntity() {
+        Book book = bookMapper.toEntity(new BookDTO());
+
+        assertThat(book).isEqualTo(modelMapper.map(new BookDTO(), Book.class));
+    }
+}
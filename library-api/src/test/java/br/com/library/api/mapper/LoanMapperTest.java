@@ -0,0 +1,51 @@
+package br.com.library.api.mapper;
+
+import br.com.library.api.dto.BookDTO;
+import br.com.library.api.dto.LoanDTO;
+import br.com.library.api.model.Book;
+import br.com.library.api.model.Customer;
+import br.com.library.api.model.Loan;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LoanMapperTest {
+
+    LoanMapper loanMapper = Mappers.getMapper(LoanMapper.class);
+
+    ModelMapper modelMapper = new ModelMapper();
+
+    @Test
+    @DisplayName("must map a loan and its book the way the loan search used to")
+    void testToDto() {
+        Book book = Book.builder().id(1L).title("Clean Code").author("Robert Cecil Martin").isbn("123").build();
+        Loan loan = Loan.builder().id(2L).customer(Customer.builder().name("Joaozin").build()).book(book).loanDate(LocalDate.now()).build();
+
+        LoanDTO dto = loanMapper.toDto(loan);
+
+        LoanDTO expected = modelMapper.map(loan, LoanDTO.class);
+        expected.setBook(modelMapper.map(book, BookDTO.class));
+        expected.setCustomer("Joaozin");
+        assertThat(dto).isEqualTo(expected);
+        assertThat(dto.getIsbn()).isNull();
+        assertThat(dto.getBook().getIsbn()).isEqualTo("123");
+    }
+
+    @Test
+    @DisplayName("must map a loan without book")
+    void testToDtoWithoutBook() {
+        Loan loan = Loan.builder().id(2L).customer(Customer.builder().name("Joaozin").build()).build();
+
+        LoanDTO dto = loanMapper.toDto(loan);
+
+        LoanDTO expected = modelMapper.map(loan, LoanDTO.class);
+        expected.setCustomer("Joaozin");
+        assertThat(dto).isEqualTo(expected);
+        assertThat(dto.getBook()).isNull();
+    }
+}
@@ -0,0 +1,188 @@
+package br.com.library.api.model;
+
+import br.com.library.api.repository.BookRepository;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.persistence.PersistenceException;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class BookRepositoryTest {
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Test
+    @DisplayName("should return true if the ISBN already exists")
+    void testReturnTrueWhenIsbnExists() {
+        String isbn = "121321";
+        Book book = createNewBook(isbn);
+        entityManager.persist(book);
+
+        boolean exists = bookRepository.existsByIsbn(isbn);
+
+        assertThat(exists).isTrue();
+    }
+
+    private Book createNewBook(String isbn) {
+        return Book.builder().title("Clean Code").author("Robert Cecil Martin").isbn(isbn).build();
+    }
+
+    @Test
+    @DisplayName("must reject a second book with the same ISBN")
+    void testRejectDuplicatedIsbn() {
+        entityManager.persistAndFlush(createNewBook("121321"));
+
+        Throwable exception = Assertions.assertThrows(PersistenceException.class,
+                () -> entityManager.persistAndFlush(createNewBook("121321")));
+
+        assertThat(exception.getCause()).isInstanceOf(ConstraintViolationException.class);
+        assertThat(((ConstraintViolationException) exception.getCause()).getConstraintName()).containsIgnoringCase("UK_BOOK_ISBN");
+    }
+
+    @Test
+    @DisplayName("must bump the version on every update and read it alone")
+    void testVersion() {
+        Book book = entityManager.persistAndFlush(createNewBook("121321"));
+        assertThat(bookRepository.findVersionById(book.getId())).contains(0L);
+
+        book.setTitle("Clean Architecture");
+        entityManager.flush();
+
+        assertThat(bookRepository.findVersionById(book.getId())).contains(1L);
+        assertThat(bookRepository.findVersionById(book.getId() + 1)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should return false when ISBN does not exist")
+    void testReturnFalseWhenIsbnExists() {
+        String isbn = "121321";
+
+        boolean exists = bookRepository.existsByIsbn(isbn);
+
+        assertThat(exists).isFalse();
+    }
+
+    @Test
+    @DisplayName("must get a book by ID")
+    void testFindById() {
+        String isbn = "121321";
+        Book book = createNewBook(isbn);
+        entityManager.persist(book);
+
+        Optional<Book> foundBook = bookRepository.findById(book.getId());
+
+        assertThat(foundBook).isPresent();
+    }
+
+    @Test
+    @DisplayName("must save a book")
+    void testSaveBook() {
+        String isbn = "121321";
+        Book book = createNewBook(isbn);
+
+        Book savedBook = bookRepository.save(book);
+
+        assertThat(savedBook.getId()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("must delete a book")
+    void testDeleteBook() {
+        String isbn = "121321";
+        Book book = createNewBook(isbn);
+        entityManager.persist(book);
+        Book foundBook = entityManager.find(Book.class, book.getId());
+
+        bookRepository.deleteById(foundBook.getId());
+
+        Book deletedBook = entityManager.find(Book.class, book.getId());
+        assertThat(deletedBook).isNull();
+
+
+    }
+
+    @Test
+    @DisplayName("must filter books ignoring case without counting them")
+    void testSearch() {
+        Book book = createNewBook("121321");
+        entityManager.persist(book);
+        entityManager.persist(Book.builder().title("Refactoring").author("Martin Fowler").isbn("121322").build());
+
+        Slice<Book> result = bookRepository.search(null, "CLEAN", "martin", null, PageRequest.of(0, 10));
+
+        assertThat(result.getContent()).containsExactly(book);
+        assertThat(result.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("must filter books by id in the slice and cursor listings")
+    void testSearchById() {
+        Book book = createNewBook("121321");
+        Book other = createNewBook("121322");
+        entityManager.persist(book);
+        entityManager.persist(other);
+
+        Slice<Book> slice = bookRepository.search(other.getId(), "clean", null, null, PageRequest.of(0, 10));
+        Slice<Book> cursor = bookRepository.findAfter(other.getId(), null, null, null, 0L, PageRequest.of(0, 10));
+
+        assertThat(slice.getContent()).containsExactly(other);
+        assertThat(cursor.getContent()).containsExactly(other);
+    }
+
+    @Test
+    @DisplayName("must stream every book in id order")
+    void testStreamAll() {
+        Book first = createNewBook("121321");
+        Book second = createNewBook("121322");
+        entityManager.persist(first);
+        entityManager.persist(second);
+
+        try (Stream<Book> books = bookRepository.streamAll()) {
+            assertThat(books.collect(Collectors.toList())).containsExactly(first, second);
+        }
+    }
+
+    @Test
+    @DisplayName("must page books by id after the last seen one")
+    void testFindAfter() {
+        Book first = createNewBook("121321");
+        Book second = createNewBook("121322");
+        Book other = Book.builder().title("Refactoring").author("Martin Fowler").isbn("121323").build();
+        Book third = createNewBook("121324");
+        entityManager.persist(first);
+        entityManager.persist(second);
+        entityManager.persist(other);
+        entityManager.persist(third);
+
+        Slice<Book> firstPage = bookRepository.findAfter(null, "clean", null, null, 0L, PageRequest.of(0, 2));
+        Slice<Book> secondPage = bookRepository.findAfter(null, "clean", null, null, second.getId(), PageRequest.of(0, 2));
+
+        assertThat(firstPage.getContent()).containsExactly(first, second);
+        assertThat(firstPage.hasNext()).isTrue();
+        assertThat(secondPage.getContent()).containsExactly(third);
+        assertThat(secondPage.hasNext()).isFalse();
+    }
+
+
+}
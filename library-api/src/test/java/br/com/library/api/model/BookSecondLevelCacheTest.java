@@ -0,0 +1,100 @@
+package br.com.library.api.model;
+
+import br.com.library.api.repository.BookRepository;
+import br.com.library.api.repository.LoanRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class BookSecondLevelCacheTest {
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+
+    Book book;
+
+    @BeforeEach
+    void setUp() {
+        book = bookRepository.save(Book.builder().title("Clean Code").author("Robert C. Martin").isbn("123").build());
+        entityManagerFactory.getCache().evictAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        loanRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("must load a book by id from the database only once")
+    void testFindByIdCached() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(bookRepository.findById(book.getId())).isPresent();
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getDomainDataRegionStatistics(Book.CACHE_REGION).getHitCount()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("must look a book up by ISBN with one query")
+    void testFindByIsbnCached() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(bookRepository.findByIsbn("123")).isPresent();
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getQueryRegionStatistics(BookRepository.ISBN_CACHE_REGION).getHitCount()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("must see updates and deletes through the cache")
+    void testCacheCoherence() {
+        bookRepository.findById(book.getId());
+        bookRepository.findByIsbn("123");
+
+        book.setTitle("Clean Architecture");
+        bookRepository.save(book);
+        assertThat(bookRepository.findById(book.getId()).get().getTitle()).isEqualTo("Clean Architecture");
+        assertThat(bookRepository.findByIsbn("123").get().getTitle()).isEqualTo("Clean Architecture");
+
+        bookRepository.deleteById(book.getId());
+        assertThat(bookRepository.findById(book.getId())).isEmpty();
+        assertThat(bookRepository.findByIsbn("123")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("must not share an edited book with other readers before it is saved")
+    void testCachedCopiesAreIsolated() {
+        Book edited = bookRepository.findById(book.getId()).get();
+        edited.setTitle("Clean Architecture");
+
+        assertThat(bookRepository.findById(book.getId()).get().getTitle()).isEqualTo("Clean Code");
+        assertThat(bookRepository.findByIsbn("123").get().getTitle()).isEqualTo("Clean Code");
+    }
+}
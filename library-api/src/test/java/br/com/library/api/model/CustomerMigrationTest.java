@@ -0,0 +1,43 @@
+package br.com.library.api.model;
+
+import org.flywaydb.core.Flyway;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Migrates a database holding loans under free-text customer names and checks the customers made out of them.
+ */
+public class CustomerMigrationTest {
+
+    @Test
+    @DisplayName("must backfill customers and their aggregates from the loan customer names")
+    void testBackfill() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:customer-migration;DB_CLOSE_DELAY=-1");
+        JdbcTemplate database = new JdbcTemplate(dataSource);
+        Flyway.configure().dataSource(dataSource).target("3").load().migrate();
+        database.update("insert into BOOK (BOOK_ID, BOOK_ISBN, BOOK_VERSION) values (1, '123', 0), (2, '456', 0)");
+        database.update("insert into LOAN (LOAN_ID, LOAN_CUSTOMER, BOOK_ID, LOAN_DATE, LOAN_RETURNED, LOAN_OVERDUE, LOAN_VERSION)"
+                + " values (1, 'Joãozin', 1, date '2024-03-01', true, false, 0),"
+                + " (2, 'Joãozin', 2, date '2024-03-05', false, false, 0),"
+                + " (3, 'Mariazinha', 1, date '2024-03-08', false, false, 0),"
+                + " (4, null, 2, date '2024-03-09', true, false, 0)");
+
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        Map<String, Object> joao = database.queryForMap("select * from CUSTOMER where CUSTOMER_NAME = 'Joãozin'");
+        assertThat(joao.get("CUSTOMER_ACTIVE_LOANS")).isEqualTo(1L);
+        assertThat(joao.get("CUSTOMER_TOTAL_LOANS")).isEqualTo(2L);
+        assertThat(joao.get("CUSTOMER_LAST_LOAN_DATE").toString()).isEqualTo("2024-03-05");
+        assertThat(database.queryForObject("select count(*) from CUSTOMER", Long.class)).isEqualTo(2);
+        assertThat(database.queryForList("select LOAN_ID from LOAN where CUSTOMER_ID = ? order by LOAN_ID", Long.class,
+                joao.get("CUSTOMER_ID"))).containsExactly(1L, 2L);
+        assertThat(database.queryForObject("select CUSTOMER_ID from LOAN where LOAN_ID = 4", Long.class)).isNull();
+    }
+}
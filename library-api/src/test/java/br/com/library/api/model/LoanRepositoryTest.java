@@ -0,0 +1,179 @@
+package br.com.library.api.model;
+
+import br.com.library.api.repository.LoanRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+public class LoanRepositoryTest {
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    Book book;
+
+    Customer customer;
+
+
+    @Test
+    @DisplayName("should check if there is an unreturned loan for the book")
+    void testExistsByBookAndNotReturned() {
+
+        Loan loan = createAndPersistLoan();
+        Book book = loan.getBook();
+
+        boolean exists = loanRepository.existsByBookAndNotReturned(book);
+
+        assertThat(exists).isTrue();
+    }
+
+    @Test
+    @DisplayName("must filter loan per isbn or customer")
+    void testFindByBookIsbnOrCustomer() {
+        Loan loan = createAndPersistLoan();
+
+        Page<Loan> result =  loanRepository
+                            .findByBookIsbnOrCustomer("123", "Joãozin", PageRequest.of(0, 10));
+
+        assertThat(result.getContent()).hasSize(1);
+        assertThat(result.getContent()).contains(loan);
+        assertThat(result.getPageable().getPageSize()).isEqualTo(10);
+        assertThat(result.getPageable().getPageNumber()).isEqualTo(0);
+        assertThat(result.getTotalElements()).isEqualTo(1);
+
+    }
+
+    @Test
+    @DisplayName("must filter loan per isbn or customer without counting them")
+    void testSearchByBookIsbnOrCustomer() {
+        Loan loan = createAndPersistLoan();
+
+        Slice<Loan> result = loanRepository.searchByBookIsbnOrCustomer("123", null, PageRequest.of(0, 10));
+
+        assertThat(result.getContent()).containsExactly(loan);
+        assertThat(result.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("must page loans by id after the last seen one")
+    void testFindByBookIsbnOrCustomerAfter() {
+        Loan first = createAndPersistLoan();
+        Loan second = createAndPersistLoan();
+
+        Slice<Loan> firstPage = loanRepository.findByBookIsbnOrCustomerAfter("123", "Joãozin", 0L, PageRequest.of(0, 1));
+        Slice<Loan> secondPage = loanRepository
+                .findByBookIsbnOrCustomerAfter("123", "Joãozin", first.getId(), PageRequest.of(0, 1));
+
+        assertThat(firstPage.getContent()).containsExactly(first);
+        assertThat(firstPage.hasNext()).isTrue();
+        assertThat(secondPage.getContent()).containsExactly(second);
+        assertThat(secondPage.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("must stream every loan with its book")
+    void testStreamAll() {
+        Loan loan = createAndPersistLoan();
+        entityManager.flush();
+        entityManager.clear();
+
+        try (Stream<Loan> loans = loanRepository.streamAll()) {
+            Loan streamed = loans.collect(Collectors.toList()).get(0);
+            assertThat(streamed.getId()).isEqualTo(loan.getId());
+            assertThat(streamed.getBook().getIsbn()).isEqualTo("123");
+        }
+    }
+
+    @Test
+    @DisplayName("must mark the open loans past the due date as overdue, chunk by chunk")
+    void testMarkOverdue() {
+        LocalDate dueBefore = LocalDate.now().minusDays(14);
+        Loan first = createAndPersistLoan(dueBefore.minusDays(1), false);
+        Loan second = createAndPersistLoan(dueBefore.minusDays(30), false);
+        createAndPersistLoan(dueBefore.minusDays(30), true);
+        createAndPersistLoan(dueBefore, false);
+
+        List<Long> firstChunk = loanRepository.findOverdueIdsAfter(dueBefore, 0L, PageRequest.of(0, 1));
+        List<Long> secondChunk = loanRepository.findOverdueIdsAfter(dueBefore, first.getId(), PageRequest.of(0, 1));
+        int marked = loanRepository.markOverdue(Arrays.asList(first.getId(), second.getId()));
+        entityManager.clear();
+
+        assertThat(firstChunk).containsExactly(first.getId());
+        assertThat(secondChunk).containsExactly(second.getId());
+        assertThat(marked).isEqualTo(2);
+        assertThat(loanRepository.findOverdueIdsAfter(dueBefore, 0L, PageRequest.of(0, 10))).isEmpty();
+        Slice<Loan> overdue = loanRepository.findOverdueAfter(0L, PageRequest.of(0, 10));
+        assertThat(overdue.getContent()).extracting(Loan::getId).containsExactly(first.getId(), second.getId());
+        assertThat(overdue.getContent()).extracting(Loan::getVersion).containsExactly(first.getVersion() + 1, second.getVersion() + 1);
+    }
+
+    @Test
+    @DisplayName("must leave a loan returned or already marked since it was picked as overdue untouched")
+    void testMarkOverdueSkipsChangedLoans() {
+        LocalDate dueBefore = LocalDate.now().minusDays(14);
+        Loan returned = createAndPersistLoan(dueBefore.minusDays(1), false);
+        Loan overdue = createAndPersistLoan(dueBefore.minusDays(1), false);
+        List<Long> chunk = loanRepository.findOverdueIdsAfter(dueBefore, 0L, PageRequest.of(0, 10));
+        returned.setReturned(true);
+        loanRepository.markOverdue(Collections.singletonList(overdue.getId()));
+        entityManager.clear();
+        List<Loan> before = loanRepository.findAllById(chunk);
+        entityManager.clear();
+
+        int marked = loanRepository.markOverdue(chunk);
+        entityManager.clear();
+
+        assertThat(chunk).containsExactly(returned.getId(), overdue.getId());
+        assertThat(marked).isZero();
+        assertThat(loanRepository.findAllById(chunk)).extracting(Loan::getId, Loan::getVersion, Loan::isOverdue)
+                .containsExactlyInAnyOrderElementsOf(before.stream()
+                        .map(loan -> tuple(loan.getId(), loan.getVersion(), loan.isOverdue())).collect(Collectors.toList()));
+        assertThat(loanRepository.findById(returned.getId()).get().isOverdue()).isFalse();
+    }
+
+    private Loan createAndPersistLoan(LocalDate loanDate, boolean returned) {
+        Loan loan = createAndPersistLoan();
+        loan.setLoanDate(loanDate);
+        loan.setReturned(returned);
+        entityManager.flush();
+        return loan;
+    }
+
+    private Loan createAndPersistLoan() {
+        if (book == null) {
+            book = Book.builder().title("Clean Code").author("Robert C. Martin").isbn("123").build();
+            entityManager.persist(book);
+            customer = Customer.builder().name("Joãozin").build();
+            entityManager.persist(customer);
+        }
+
+        Loan loan = Loan.builder().book(book).customer(customer).loanDate(LocalDate.now()).build();
+        entityManager.persist(loan);
+
+        return loan;
+    }
+}
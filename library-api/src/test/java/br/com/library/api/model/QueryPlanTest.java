@@ -0,0 +1,167 @@
+package br.com.library.api.model;
+
+import br.com.library.api.repository.BookRepository;
+import br.com.library.api.repository.CustomerRepository;
+import br.com.library.api.repository.LoanRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@code EXPLAIN} on the SQL each repository lookup sends and fails when H2 plans a table scan.
+ * The isbn-or-customer searches are left out: H2 cannot combine two indexes for an {@code or} across a join.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "br.com.library.api.model.QueryPlanTest$Recorder")
+public class QueryPlanTest {
+
+    private static final List<String> STATEMENTS = new ArrayList<>();
+
+    @Autowired
+    TestEntityManager entityManager;
+
+    @Autowired
+    DataSource dataSource;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    Book book;
+
+    @BeforeEach
+    void setUp() {
+        book = Book.builder().title("Clean Code").author("Robert C. Martin").isbn("123").build();
+        entityManager.persist(book);
+        Customer customer = entityManager.persist(Customer.builder().name("Joãozin").build());
+        entityManager.persistAndFlush(Loan.builder().book(book).customer(customer).loanDate(LocalDate.now()).build());
+        entityManager.clear();
+        STATEMENTS.clear();
+    }
+
+    @Test
+    @DisplayName("must find a book by ISBN through the unique index")
+    void testFindByIsbnPlan() throws SQLException {
+        bookRepository.findByIsbn("123");
+
+        assertIndexed();
+    }
+
+    @Test
+    @DisplayName("must check an ISBN through the unique index")
+    void testExistsByIsbnPlan() throws SQLException {
+        bookRepository.existsByIsbn("123");
+
+        assertIndexed();
+    }
+
+    @Test
+    @DisplayName("must find registered ISBNs through the unique index")
+    void testFindIsbnsInPlan() throws SQLException {
+        bookRepository.findIsbnsIn(Arrays.asList("123", "456"));
+
+        assertIndexed();
+    }
+
+    @Test
+    @DisplayName("must check an open loan of a book through the book index")
+    void testExistsByBookAndNotReturnedPlan() throws SQLException {
+        loanRepository.existsByBookAndNotReturned(book);
+
+        assertIndexed();
+    }
+
+    @Test
+    @DisplayName("must find loan states by id and by ISBN through indexes")
+    void testFindStatesPlan() throws SQLException {
+        loanRepository.findStatesByIdIn(Arrays.asList(1L, 2L));
+        loanRepository.findActiveStatesByIsbnIn(Arrays.asList("123", "456"));
+
+        assertIndexed();
+    }
+
+    @Test
+    @DisplayName("must update returned and overdue loans by primary key")
+    void testBulkUpdatesPlan() throws SQLException {
+        loanRepository.markReturned(Arrays.asList(1L, 2L));
+        loanRepository.markOverdue(Arrays.asList(1L, 2L));
+
+        assertIndexed();
+    }
+
+    @Test
+    @DisplayName("must walk overdue loans from the last seen id")
+    void testOverduePlan() throws SQLException {
+        loanRepository.findOverdueIdsAfter(LocalDate.now(), 0L, PageRequest.of(0, 10));
+        loanRepository.findOverdueAfter(0L, PageRequest.of(0, 10));
+
+        assertIndexed();
+    }
+
+    @Test
+    @DisplayName("must find a customer and keep its aggregates through indexes")
+    void testCustomerPlan() throws SQLException {
+        customerRepository.findByName("Joãozin");
+        customerRepository.loanMade(1L, LocalDate.now());
+        customerRepository.recountActiveLoans(Arrays.asList(1L, 2L));
+
+        assertIndexed();
+    }
+
+    private void assertIndexed() throws SQLException {
+        assertThat(STATEMENTS).isNotEmpty();
+        try (Connection connection = dataSource.getConnection()) {
+            for (String sql : STATEMENTS) {
+                assertThat(explain(connection, sql)).as(sql).doesNotContainIgnoringCase("tableScan");
+            }
+        }
+    }
+
+    private String explain(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("explain " + sql)) {
+            for (int index = 1; index <= statement.getParameterMetaData().getParameterCount(); index++) {
+                statement.setObject(index, null);
+            }
+            try (ResultSet plan = statement.executeQuery()) {
+                plan.next();
+                return plan.getString(1);
+            }
+        }
+    }
+
+    public static class Recorder implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
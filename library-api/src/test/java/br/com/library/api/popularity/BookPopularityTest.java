@@ -0,0 +1,148 @@
+package br.com.library.api.popularity;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+public class BookPopularityTest {
+
+    static final LocalDate TODAY = LocalDate.of(2024, 3, 10);
+
+    LoanCountStore store = Mockito.mock(LoanCountStore.class);
+
+    BookPopularity popularity;
+
+    @BeforeEach
+    void setUp() {
+        Clock clock = Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC);
+        popularity = new BookPopularity(store, 7, clock);
+    }
+
+    @Test
+    @DisplayName("must rank books by loans over all time and over the last days")
+    void testTop() {
+        loan(1L, TODAY, 3);
+        loan(2L, TODAY.minusDays(1), 5);
+        loan(3L, TODAY.minusDays(20), 9);
+        loan(4L, TODAY, 1);
+
+        assertThat(popularity.top(3)).containsExactly(
+                new BookLoanCount(3L, 9), new BookLoanCount(2L, 5), new BookLoanCount(1L, 3));
+        assertThat(popularity.top(2, 7)).containsExactly(new BookLoanCount(2L, 5), new BookLoanCount(1L, 3));
+        assertThat(popularity.top(5, 1)).containsExactly(new BookLoanCount(1L, 3), new BookLoanCount(4L, 1));
+        assertThat(catchThrowable(() -> popularity.top(5, 8))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("must add the unflushed loans to the counts in the database and refresh those on flush")
+    void testLoad() {
+        Mockito.when(store.findTop(BookPopularity.MAX_TOP))
+                .thenReturn(Arrays.asList(new BookLoanCount(2L, 10), new BookLoanCount(1L, 9)))
+                .thenReturn(Arrays.asList(new BookLoanCount(1L, 11), new BookLoanCount(2L, 10)))
+                .thenReturn(Collections.singletonList(new BookLoanCount(2L, 12)));
+        Mockito.doAnswer(invocation -> {
+            invocation.<LoanCountStore.DailyConsumer>getArgument(1).accept(TODAY, 1L, 2L);
+            return null;
+        }).when(store).loadDaily(eq(TODAY.minusDays(6)), any());
+
+        popularity.afterSingletonsInstantiated();
+        loan(1L, TODAY, 2);
+
+        assertThat(popularity.top(1)).containsExactly(new BookLoanCount(1L, 11));
+        assertThat(popularity.top(1, 1)).containsExactly(new BookLoanCount(1L, 4));
+
+        popularity.flush();
+
+        assertThat(popularity.top(2)).containsExactly(new BookLoanCount(1L, 11), new BookLoanCount(2L, 10));
+        Mockito.verify(store).add(Collections.singletonMap(1L, 2L),
+                Collections.singletonMap(TODAY, Collections.singletonMap(1L, 2L)), TODAY.minusDays(6));
+
+        popularity.flush();
+
+        assertThat(popularity.top(2)).containsExactly(new BookLoanCount(2L, 12));
+        Mockito.verify(store, Mockito.times(3)).findTop(BookPopularity.MAX_TOP);
+        Mockito.verify(store).loadDaily(eq(TODAY.minusDays(6)), any());
+        Mockito.verifyNoMoreInteractions(store);
+    }
+
+    @Test
+    @DisplayName("must flush only what was counted since the last flush, and again after a failure")
+    @SuppressWarnings("unchecked")
+    void testFlush() {
+        loan(1L, TODAY, 2);
+        popularity.flush();
+        popularity.flush();
+
+        Mockito.doThrow(new IllegalStateException("database down"))
+                .doNothing()
+                .when(store).add(anyMap(), anyMap(), any());
+        loan(1L, TODAY, 1);
+        loan(2L, TODAY, 1);
+        catchThrowable(popularity::flush);
+        popularity.flush();
+
+        ArgumentCaptor<Map<Long, Long>> totals = ArgumentCaptor.forClass(Map.class);
+        Mockito.verify(store, Mockito.times(3)).add(totals.capture(), anyMap(), eq(TODAY.minusDays(6)));
+        Map<Long, Long> retried = new HashMap<>();
+        retried.put(1L, 1L);
+        retried.put(2L, 1L);
+        assertThat(totals.getAllValues()).containsExactly(Collections.singletonMap(1L, 2L), retried, retried);
+    }
+
+    @Test
+    @DisplayName("must not lose loans counted concurrently")
+    void testConcurrentLoans() throws InterruptedException {
+        int threads = 8;
+        int loans = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int j = 0; j < loans; j++) {
+                    popularity.loaned((long) (j % 4), TODAY);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(popularity.top(4)).extracting(BookLoanCount::getLoans).containsOnly((long) threads * loans / 4);
+    }
+
+    private void loan(Long bookId, LocalDate date, int times) {
+        for (int i = 0; i < times; i++) {
+            popularity.loaned(bookId, date);
+        }
+    }
+}
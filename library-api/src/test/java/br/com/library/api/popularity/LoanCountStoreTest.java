@@ -0,0 +1,65 @@
+package br.com.library.api.popularity;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@DataJpaTest
+@Import(LoanCountStore.class)
+public class LoanCountStoreTest {
+
+    @Autowired
+    LoanCountStore store;
+
+    @Test
+    @DisplayName("must add loan counts to the stored ones and forget days out of the window")
+    void testAdd() {
+        LocalDate today = LocalDate.now();
+        Map<Long, Long> totals = new HashMap<>();
+        totals.put(1L, 2L);
+        totals.put(2L, 1L);
+        Map<LocalDate, Map<Long, Long>> daily = new HashMap<>();
+        daily.put(today.minusDays(40), Collections.singletonMap(1L, 1L));
+        daily.put(today, totals);
+
+        store.add(totals, daily, today.minusDays(29));
+        store.add(Collections.singletonMap(1L, 3L), Collections.singletonMap(today, Collections.singletonMap(1L, 3L)),
+                today.minusDays(29));
+
+        Map<Long, Long> storedToday = new HashMap<>();
+        store.loadDaily(today.minusDays(60), (date, bookId, loans) -> {
+            assertThat(date).isEqualTo(today);
+            storedToday.put(bookId, loans);
+        });
+        assertThat(store.findTop(3)).containsExactly(new BookLoanCount(1L, 5), new BookLoanCount(2L, 1));
+        assertThat(storedToday).containsEntry(1L, 5L).containsEntry(2L, 1L);
+    }
+
+    @Test
+    @DisplayName("must read the books with the most stored loans in order")
+    void testFindTop() {
+        Map<Long, Long> totals = new HashMap<>();
+        totals.put(1L, 2L);
+        totals.put(2L, 7L);
+        totals.put(3L, 2L);
+        totals.put(4L, 1L);
+        store.add(totals, Collections.emptyMap(), LocalDate.now());
+
+        assertThat(store.findTop(3)).containsExactly(
+                new BookLoanCount(2L, 7), new BookLoanCount(1L, 2), new BookLoanCount(3L, 2));
+    }
+}
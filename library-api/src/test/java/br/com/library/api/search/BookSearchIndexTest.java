@@ -0,0 +1,105 @@
+package br.com.library.api.search;
+
+import br.com.library.api.model.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BookSearchIndexTest {
+
+    BookSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new BookSearchIndex();
+        index.rebuild(loader -> Stream.of(
+                book(1L, "Refactoring", "Martin Fowler", "111"),
+                book(2L, "Clean Code", "Robert Martin", "222"),
+                book(3L, "The Clean Coder", "Robert Martin", "333"),
+                book(4L, "Domain-Driven Design", "Eric Evans", "444")).forEach(loader));
+    }
+
+    @Test
+    @DisplayName("must be ready only after the rebuild")
+    void readyAfterRebuildTest() {
+        assertThat(new BookSearchIndex().isReady()).isFalse();
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.size()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("must find substrings inside words, ignoring case")
+    void substringTest() {
+        assertThat(index.search("LEAN", null, null)).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(index.search("driven", null, null)).containsExactly(4L);
+        assertThat(index.search(null, "tin", null)).containsExactlyInAnyOrder(1L, 2L, 3L);
+    }
+
+    @Test
+    @DisplayName("must match the whole query, not its words separately")
+    void phraseTest() {
+        assertThat(index.search("clean code", null, null)).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(index.search("code clean", null, null)).isEmpty();
+        assertThat(index.search("an cod", null, null)).containsExactlyInAnyOrder(2L, 3L);
+    }
+
+    @Test
+    @DisplayName("must rank exact and prefix matches first")
+    void rankingTest() {
+        assertThat(index.search("clean code", null, null)).containsExactly(2L, 3L);
+        assertThat(index.search(null, "martin", null)).containsExactly(1L, 2L, 3L);
+        assertThat(index.search("c", "robert", null)).containsExactly(2L, 3L);
+    }
+
+    @Test
+    @DisplayName("must combine title, author and isbn filters")
+    void combinedFiltersTest() {
+        assertThat(index.search("clean", "robert", "33")).containsExactly(3L);
+        assertThat(index.search("clean", "fowler", null)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("must not search when neither title nor author is given")
+    void noTermsTest() {
+        assertThat(index.search(null, null, "111")).isNull();
+        assertThat(index.search(" ", null, null)).isNull();
+    }
+
+    @Test
+    @DisplayName("must follow updates and removals")
+    void updateAndRemoveTest() {
+        index.index(book(2L, "Working Effectively with Legacy Code", "Michael Feathers", "222"));
+        index.remove(3L);
+
+        assertThat(index.search("clean", null, null)).isEmpty();
+        assertThat(index.search("legacy", "feathers", null)).containsExactly(2L);
+        assertThat(index.search(null, "robert", null)).isEmpty();
+        assertThat(index.size()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("must keep the writes made while the index is rebuilt")
+    void writesDuringRebuildTest() {
+        BookSearchIndex rebuilt = new BookSearchIndex();
+        rebuilt.rebuild(loader -> {
+            rebuilt.index(book(1L, "Refactoring, 2nd Edition", "Martin Fowler", "111"));
+            rebuilt.remove(2L);
+            loader.accept(book(1L, "Refactoring", "Martin Fowler", "111"));
+            loader.accept(book(2L, "Clean Code", "Robert Martin", "222"));
+        });
+
+        List<Long> result = rebuilt.search(null, "martin", null);
+
+        assertThat(result).containsExactly(1L);
+        assertThat(rebuilt.search("edition", null, null)).containsExactly(1L);
+    }
+
+    private Book book(Long id, String title, String author, String isbn) {
+        return Book.builder().id(id).title(title).author(author).isbn(isbn).build();
+    }
+}
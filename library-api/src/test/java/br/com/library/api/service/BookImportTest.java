@@ -0,0 +1,74 @@
+package br.com.library.api.service;
+
+import br.com.library.api.dto.BookImportResultDTO;
+import br.com.library.api.model.Book;
+import br.com.library.api.repository.BookRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = "library.books.import.batch-size=100")
+public class BookImportTest {
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @AfterEach
+    void tearDown() {
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("must import a large catalog skipping ISBNs already registered")
+    void testImportBooks() {
+        bookRepository.save(createBook("isbn-7"));
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 1050; i++) {
+            books.add(createBook("isbn-" + i));
+        }
+
+        BookImportResultDTO result = bookService.importBooks(books);
+
+        assertThat(result.getImported()).isEqualTo(1049);
+        assertThat(result.getFailures()).hasSize(1);
+        assertThat(result.getFailures().get(0).getIndex()).isEqualTo(7);
+        assertThat(bookRepository.count()).isEqualTo(1050);
+        assertThat(bookRepository.findByIsbn("isbn-1049")).isPresent();
+    }
+
+    @Test
+    @DisplayName("must keep the good books of a batch the database rejects")
+    void testImportBatchWithRejectedBook() {
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            books.add(createBook("isbn-" + i));
+        }
+        books.get(4).setTitle(new String(new char[300]).replace('\0', 'x'));
+
+        BookImportResultDTO result = bookService.importBooks(books);
+
+        assertThat(result.getImported()).isEqualTo(9);
+        assertThat(result.getFailures()).hasSize(1);
+        assertThat(result.getFailures().get(0).getIndex()).isEqualTo(4);
+        assertThat(bookRepository.count()).isEqualTo(9);
+    }
+
+    private Book createBook(String isbn) {
+        return Book.builder().title("Clean Code").author("Robert Cecil Martin").isbn(isbn).build();
+    }
+}
@@ -0,0 +1,377 @@
+package br.com.library.api.service;
+
+import br.com.library.api.changes.ChangeEvent;
+import br.com.library.api.dto.BookDTO;
+import br.com.library.api.dto.BookImportResultDTO;
+import br.com.library.api.exception.BusinessException;
+import br.com.library.api.model.Book;
+import br.com.library.api.repository.BookRepository;
+import br.com.library.api.search.BookSearchIndex;
+import br.com.library.api.service.impl.BookServiceImpl;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.persistence.EntityManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("Test")
+public class BookServiceTest {
+
+    BookService bookService;
+
+    EntityManager entityManager = Mockito.mock(EntityManager.class);
+
+    BookSearchIndex searchIndex;
+
+    ApplicationEventPublisher eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+
+    @MockBean
+    BookRepository bookRepository;
+
+    @BeforeEach
+    void setUp() {
+        this.searchIndex = new BookSearchIndex();
+        this.bookService = new BookServiceImpl(bookRepository, entityManager, searchIndex, eventPublisher, 2);
+    }
+
+    @Test
+    @DisplayName("Must save a book")
+    void saveBookTest() {
+        Book book = createNewValidBook();
+        Mockito.when(bookRepository.existsByIsbn(Mockito.anyString())).thenReturn(false);
+
+        Mockito.when( bookRepository.save(book))
+                .thenReturn(Book.builder().id(1L).title("Clean Code").author("Robert Cecil Martin").isbn("121321").build());
+
+        Book savedBook = bookService.save(book);
+
+        assertThat(savedBook.getId()).isNotNull();
+        assertThat(savedBook.getTitle()).isEqualTo("Clean Code");
+        assertThat(savedBook.getAuthor()).isEqualTo("Robert Cecil Martin");
+        assertThat(savedBook.getIsbn()).isEqualTo("121321");
+        Mockito.verify(eventPublisher).publishEvent(new ChangeEvent(ChangeEvent.Entity.BOOK, ChangeEvent.Type.CREATED, 1L, null));
+    }
+
+    @Test
+    @DisplayName("should throw an error when trying to save a book with duplicate ISBN")
+    void shouldNotSaveABookWithDuplicatedISBN() {
+
+        Book book = createNewValidBook();
+        Mockito.when(bookRepository.existsByIsbn(Mockito.anyString())).thenReturn(true);
+
+        Throwable exception = Assertions.catchThrowable(() -> bookService.save(book));
+        assertThat(exception).isInstanceOf(BusinessException.class)
+                .hasMessage("ISBN already registered");
+
+        Mockito.verify(bookRepository, Mockito.never()).save(book);
+
+    }
+
+    @Test
+    @DisplayName("must translate a unique ISBN violation into a business error")
+    void shouldNotSaveABookWhenTheIsbnConstraintIsViolated() {
+        Book book = createNewValidBook();
+        Mockito.when(bookRepository.existsByIsbn(Mockito.anyString())).thenReturn(false);
+        Mockito.when(bookRepository.save(book)).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new SQLException("Unique index or primary key violation: \"PUBLIC.UK_BOOK_ISBN_INDEX_1 ON PUBLIC.BOOK(BOOK_ISBN)\"")));
+
+        Throwable exception = Assertions.catchThrowable(() -> bookService.save(book));
+
+        assertThat(exception).isInstanceOf(BusinessException.class).hasMessage("ISBN already registered");
+        assertThat(searchIndex.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("must get a book by ID")
+    void testGetById() {
+
+        Book book = createNewValidBook();
+        book.setId(id());
+        Mockito.when(bookRepository.findById(id())).thenReturn(Optional.of(book));
+
+        Optional<Book> foundBook = bookService.getById(id());
+
+        assertThat(foundBook).isPresent();
+        assertThat(foundBook.get().getId()).isEqualTo(id());
+        assertThat(foundBook.get().getTitle()).isEqualTo(book.getTitle());
+        assertThat(foundBook.get().getAuthor()).isEqualTo(book.getAuthor());
+        assertThat(foundBook.get().getIsbn()).isEqualTo(book.getIsbn());
+    }
+
+    @Test
+    @DisplayName("should return empty if book ID does not exist")
+    void testBookNotFoundById() {
+        Mockito.when(bookRepository.findById(id())).thenReturn(Optional.empty());
+
+        Optional<Book> book = bookService.getById(id());
+
+        assertThat(book.isPresent()).isFalse();
+    }
+
+    @Test
+    @DisplayName("must delete a book")
+    void testDeleteBook() {
+
+        org.junit.jupiter.api.Assertions.assertDoesNotThrow(() -> bookService.delete(id()));
+
+        Mockito.verify(bookRepository, Mockito.times(1)).deleteById(id());
+        Mockito.verify(eventPublisher).publishEvent(new ChangeEvent(ChangeEvent.Entity.BOOK, ChangeEvent.Type.DELETED, id(), null));
+    }
+
+    @Test
+    @DisplayName("should return empty if book id does not exist")
+    void testDeleteInvalidBook() {
+        Mockito.verify(bookRepository, Mockito.never()).deleteById(id());
+    }
+
+    @Test
+    @DisplayName("should return error if the book does not exist")
+    void testUpdateInvalidBook() {
+        Book book = createNewValidBook();
+        org.junit.jupiter.api.Assertions.assertThrows(IllegalArgumentException.class, () -> bookService.update(book));
+
+        Mockito.verify(bookRepository, Mockito.never()).save(book);
+    }
+
+    @Test
+    @DisplayName("must update a book")
+    void testUpdateBook() {
+        Book updatingBook = Book.builder().id(id()).build();
+
+        Book updatedBook = createNewValidBook();
+        updatedBook.setId(id());
+        Mockito.when(bookRepository.save(updatingBook)).thenReturn(updatedBook);
+
+        Book book = bookService.update(updatingBook);
+
+        assertThat(book.getId()).isEqualTo(updatedBook.getId());
+        assertThat(book.getTitle()).isEqualTo(updatedBook.getTitle());
+        assertThat(book.getAuthor()).isEqualTo(updatedBook.getAuthor());
+        assertThat(book.getIsbn()).isEqualTo(updatedBook.getIsbn());
+        Mockito.verify(eventPublisher).publishEvent(ChangeEvent.of(ChangeEvent.Type.UPDATED, updatedBook));
+    }
+
+    @Test
+    @DisplayName("must filter book by properties")
+    void testFindBook() {
+        // scenery
+        Book book = createNewValidBook();
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        List<Book> bookList = Arrays.asList(book);
+        Page<Book> page = new PageImpl<Book>(bookList, pageRequest, 1);
+        Mockito.when(bookRepository.findAll(ArgumentMatchers.<Example<Book>>any(), Mockito.any(PageRequest.class))).thenReturn(page);
+
+        // execution
+        Page<Book> result  = bookService.find(book, pageRequest);
+
+        // verification
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        assertThat(result.getContent()).isEqualTo(bookList);
+        assertThat(result.getPageable().getPageNumber()).isZero();
+        assertThat(result.getPageable().getPageSize()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("must search books by title and author through the index once it is loaded")
+    void testFindBookThroughIndex() {
+        Book first = Book.builder().id(1L).title("Clean Code").author("Robert Martin").isbn("1").build();
+        Book second = Book.builder().id(2L).title("The Clean Coder").author("Robert Martin").isbn("2").build();
+        Book other = Book.builder().id(3L).title("Refactoring").author("Martin Fowler").isbn("3").build();
+        searchIndex.rebuild(loader -> Stream.of(first, second, other).forEach(loader));
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Mockito.when(bookRepository.findAllById(Arrays.asList(1L, 2L))).thenReturn(Arrays.asList(second, first));
+
+        Page<Book> result = bookService.find(Book.builder().title("clean").author("martin").build(), pageRequest);
+
+        assertThat(result.getTotalElements()).isEqualTo(2);
+        assertThat(result.getContent()).containsExactly(first, second);
+        Mockito.verify(bookRepository, Mockito.never()).findAll(ArgumentMatchers.<Example<Book>>any(), Mockito.any(PageRequest.class));
+    }
+
+    @Test
+    @DisplayName("must list all books with a cached total")
+    void testFindAllBooksCachesTotal() {
+        PageRequest pageRequest = PageRequest.of(0, 1);
+        List<Book> bookList = Arrays.asList(createNewValidBook());
+        Mockito.when(bookRepository.search(null, null, null, null, pageRequest)).thenReturn(new SliceImpl<Book>(bookList, pageRequest, true));
+        Mockito.when(bookRepository.count()).thenReturn(3L, 4L);
+
+        Page<Book> first = bookService.find(new Book(), pageRequest);
+        Page<Book> second = bookService.find(new Book(), pageRequest);
+
+        assertThat(first.getTotalElements()).isEqualTo(3);
+        assertThat(second.getTotalElements()).isEqualTo(3);
+        assertThat(second.getContent()).isEqualTo(bookList);
+        Mockito.verify(bookRepository, Mockito.times(1)).count();
+        Mockito.verify(bookRepository, Mockito.never()).findAll(ArgumentMatchers.<Example<Book>>any(), Mockito.any(PageRequest.class));
+    }
+
+    @Test
+    @DisplayName("must count the books again after a write")
+    void testSaveRefreshesTotal() {
+        PageRequest pageRequest = PageRequest.of(0, 1);
+        Mockito.when(bookRepository.search(null, null, null, null, pageRequest))
+                .thenReturn(new SliceImpl<Book>(Arrays.asList(createNewValidBook()), pageRequest, true));
+        Mockito.when(bookRepository.count()).thenReturn(3L, 4L);
+        Mockito.when(bookRepository.save(Mockito.any(Book.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        bookService.find(new Book(), pageRequest);
+        bookService.save(createNewValidBook());
+        Page<Book> result = bookService.find(new Book(), pageRequest);
+
+        assertThat(result.getTotalElements()).isEqualTo(4);
+        Mockito.verify(bookRepository, Mockito.times(2)).count();
+    }
+
+    @Test
+    @DisplayName("must not keep a total counted before a concurrent write")
+    void testConcurrentCountAndWrites() throws Exception {
+        PageRequest pageRequest = PageRequest.of(0, 1);
+        Mockito.when(bookRepository.search(null, null, null, null, pageRequest))
+                .thenReturn(new SliceImpl<Book>(Arrays.asList(createNewValidBook()), pageRequest, true));
+        AtomicLong books = new AtomicLong(100_000);
+        Mockito.when(bookRepository.count()).thenAnswer(invocation -> books.get());
+        Mockito.doAnswer(invocation -> books.decrementAndGet()).when(bookRepository).deleteById(Mockito.anyLong());
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        AtomicBoolean writing = new AtomicBoolean(true);
+
+        try {
+            List<Future<?>> readers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                readers.add(executor.submit(() -> {
+                    while (writing.get()) {
+                        bookService.find(new Book(), pageRequest);
+                    }
+                }));
+            }
+            for (int i = 0; i < 5_000; i++) {
+                bookService.delete(1L);
+                assertThat(bookService.find(new Book(), pageRequest).getTotalElements()).isEqualTo(books.get());
+            }
+            writing.set(false);
+            for (Future<?> reader : readers) {
+                reader.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            writing.set(false);
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("must filter book without counting the total")
+    void testFindBookSlice() {
+        Book book = createNewValidBook();
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Mockito.when(bookRepository.search(book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn(), pageRequest))
+                .thenReturn(new SliceImpl<Book>(Arrays.asList(book), pageRequest, false));
+
+        Slice<Book> result = bookService.findSlice(book, pageRequest);
+
+        assertThat(result.getContent()).containsExactly(book);
+        Mockito.verify(bookRepository, Mockito.never()).count();
+    }
+
+    @Test
+    @DisplayName("must filter book after the last seen id")
+    void testFindBookAfter() {
+        Book book = createNewValidBook();
+        List<Book> bookList = Arrays.asList(book);
+        Mockito.when(bookRepository.findAfter(book.getId(), book.getTitle(), book.getAuthor(), book.getIsbn(), 10L,
+                PageRequest.of(0, 5)))
+                .thenReturn(new SliceImpl<Book>(bookList, PageRequest.of(0, 5), false));
+
+        Slice<Book> result = bookService.findAfter(book, 10L, 5);
+
+        assertThat(result.getContent()).isEqualTo(bookList);
+        assertThat(result.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("must get the book from isbn")
+    void tesGetBookByIsbn() {
+        String isbn = "123";
+        Mockito.when(bookRepository.findByIsbn(isbn)).thenReturn(Optional.of(Book.builder().id(1L).isbn(isbn).build()));
+
+        Optional<Book> book = bookService.getBookByIsbn(isbn);
+
+        assertThat(book.isPresent()).isTrue();
+        assertThat(book.get().getId()).isEqualTo(1L);
+        assertThat(book.get().getIsbn()).isEqualTo(isbn);
+
+        Mockito.verify(bookRepository, Mockito.times(1)).findByIsbn(isbn);
+    }
+
+    @Test
+    @DisplayName("must import books in batches and report the ones left out")
+    void testImportBooks() {
+        Book first = Book.builder().title("Clean Code").author("Robert Cecil Martin").isbn("1").build();
+        Book incomplete = Book.builder().title("Clean Code").isbn("2").build();
+        Book repeated = Book.builder().title("Clean Code").author("Robert Cecil Martin").isbn("1").build();
+        Book registered = Book.builder().title("Refactoring").author("Martin Fowler").isbn("3").build();
+        Book last = Book.builder().title("Clean Coder").author("Robert Cecil Martin").isbn("4").build();
+        Mockito.when(bookRepository.findIsbnsIn(Mockito.anyCollection())).thenReturn(Arrays.asList(), Arrays.asList("3"));
+
+        BookImportResultDTO result = bookService.importBooks(Arrays.asList(first, incomplete, repeated, registered, last));
+
+        assertThat(result.getReceived()).isEqualTo(5);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailures()).extracting("index").containsExactly(1, 2, 3);
+        assertThat(result.getFailures()).extracting("reason")
+                .containsExactly("Title, author and ISBN are required", "ISBN repeated in the import", "ISBN already registered");
+        Mockito.verify(bookRepository).saveAll(Arrays.asList(first));
+        Mockito.verify(bookRepository).saveAll(Arrays.asList(last));
+        Mockito.verify(bookRepository, Mockito.never()).existsByIsbn(Mockito.anyString());
+    }
+
+    @Test
+    @DisplayName("must export every book and detach it afterwards")
+    void testExportAll() {
+        Book book = createNewValidBook();
+        Mockito.when(bookRepository.streamAll()).thenReturn(Stream.of(book));
+
+        List<Book> exported = new ArrayList<>();
+        bookService.exportAll(exported::add);
+
+        assertThat(exported).containsExactly(book);
+        Mockito.verify(entityManager).detach(book);
+    }
+
+    private Long id() {
+        return 1L;
+    }
+
+    private Book createNewValidBook() {
+        return Book.builder().title("Clean Code").author("Robert Cecil Martin").isbn("121321").build();
+    }
+}
@@ -0,0 +1,101 @@
+package br.com.library.api.service;
+
+import br.com.library.api.dto.BulkReturnResultDTO;
+import br.com.library.api.model.Book;
+import br.com.library.api.model.Customer;
+import br.com.library.api.model.Loan;
+import br.com.library.api.repository.BookRepository;
+import br.com.library.api.repository.CustomerRepository;
+import br.com.library.api.repository.LoanRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class BulkReturnTest {
+
+    private static final int LOANS = 5000;
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    LoanService loanService;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @AfterEach
+    void tearDown() {
+        loanRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("must return a burst of loans with three statements per batch")
+    void testReturnBurst() {
+        Customer customer = customerRepository.save(Customer.builder().name("Joãozin").build());
+        List<Book> books = new ArrayList<>();
+        for (int i = 0; i < LOANS; i++) {
+            books.add(Book.builder().title("Clean Code").author("Robert C. Martin").isbn("isbn-" + i).build());
+        }
+        List<Loan> loans = bookRepository.saveAll(books).stream()
+                .map(book -> Loan.builder().book(book).customer(customer).loanDate(LocalDate.now()).build())
+                .collect(Collectors.toList());
+        List<Long> ids = loanRepository.saveAll(loans).stream().map(Loan::getId).collect(Collectors.toList());
+        loanService.returnLoans(ids.subList(0, BATCH_SIZE), null);
+        ids = ids.subList(BATCH_SIZE, LOANS);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        BulkReturnResultDTO result = loanService.returnLoans(ids, null);
+
+        assertThat(result.getReturned()).isEqualTo(ids.size());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3L * ids.size() / BATCH_SIZE);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(loanRepository.findActiveLoans()).isEmpty();
+        assertThat(customerRepository.findById(customer.getId()).get().getActiveLoans()).isZero();
+    }
+
+    @Test
+    @DisplayName("must lend a book again once its bulk return is committed")
+    void testLendAfterBulkReturn() {
+        Book book = bookRepository.save(Book.builder().title("Clean Code").author("Robert C. Martin").isbn("123").build());
+        loanService.save(Loan.builder().book(book).customer(Customer.builder().name("Joãozin").build()).loanDate(LocalDate.now()).build());
+
+        BulkReturnResultDTO result = loanService.returnLoans(null, Collections.singletonList("123"));
+        Throwable exception = catchThrowable(() ->
+                loanService.save(Loan.builder().book(book).customer(Customer.builder().name("Mariazinha").build()).loanDate(LocalDate.now()).build()));
+
+        assertThat(result.getReturned()).isEqualTo(1);
+        assertThat(exception).isNull();
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.library.api.service;
+
+import br.com.library.api.model.Book;
+import br.com.library.api.model.Customer;
+import br.com.library.api.model.Loan;
+import br.com.library.api.repository.BookRepository;
+import br.com.library.api.repository.CustomerRepository;
+import br.com.library.api.repository.LoanRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+public class CustomerSummaryTest {
+
+    @Autowired
+    LoanService loanService;
+
+    @Autowired
+    CustomerService customerService;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @AfterEach
+    void tearDown() {
+        loanRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("must keep the loan aggregates of a customer as loans are made and returned")
+    void testAggregates() {
+        LocalDate today = LocalDate.now();
+        Loan first = lend("123", today.minusDays(3));
+        Loan second = lend("456", today);
+        lend("789", today.minusDays(1));
+
+        assertSummary(3, 3, today);
+
+        first.setReturned(true);
+        loanService.update(first);
+        assertSummary(2, 3, today);
+
+        loanService.returnLoans(Collections.singletonList(second.getId()), null);
+        assertSummary(1, 3, today);
+
+        loanService.returnLoans(null, Collections.singletonList("789"));
+        assertSummary(0, 3, today);
+        assertThat(customerService.getByName("Mariazinha")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("must register a customer once however many loans are made under the name")
+    void testGetOrCreate() {
+        Customer customer = customerService.getOrCreate("Joãozin");
+
+        assertThat(customerService.getOrCreate("Joãozin").getId()).isEqualTo(customer.getId());
+        assertThat(customerRepository.count()).isEqualTo(1);
+    }
+
+    private Loan lend(String isbn, LocalDate loanDate) {
+        Book book = bookRepository.save(Book.builder().title("Clean Code").author("Robert C. Martin").isbn(isbn).build());
+        return loanService.save(Loan.builder().book(book).customer(Customer.builder().name("Joãozin").build())
+                .loanDate(loanDate).build());
+    }
+
+    private void assertSummary(long activeLoans, long totalLoans, LocalDate lastLoanDate) {
+        Customer customer = customerService.getByName("Joãozin").get();
+        assertThat(customer.getActiveLoans()).isEqualTo(activeLoans);
+        assertThat(customer.getTotalLoans()).isEqualTo(totalLoans);
+        assertThat(customer.getLastLoanDate()).isEqualTo(lastLoanDate);
+    }
+}
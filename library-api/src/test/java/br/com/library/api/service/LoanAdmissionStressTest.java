@@ -0,0 +1,135 @@
+package br.com.library.api.service;
+
+import br.com.library.api.exception.BusinessException;
+import br.com.library.api.model.Book;
+import br.com.library.api.model.Customer;
+import br.com.library.api.model.Loan;
+import br.com.library.api.repository.BookRepository;
+import br.com.library.api.repository.CustomerRepository;
+import br.com.library.api.repository.LoanRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Many desks lending and returning a small shelf of books at the same time. A book held by two desks at once is a
+ * double loan, and so is a book with more than one open loan in the database.
+ */
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest
+public class LoanAdmissionStressTest {
+
+    static final int BOOKS = 16;
+    static final int THREADS = 8;
+    static final int ATTEMPTS = 200;
+
+    static final String DOUBLE_LOANED_BOOKS = "select BOOK_ID from LOAN where LOAN_RETURNED = false" +
+            " group by BOOK_ID having count(*) > 1";
+
+    @Autowired
+    LoanService loanService;
+
+    @Autowired
+    LoanRepository loanRepository;
+
+    @Autowired
+    BookRepository bookRepository;
+
+    @Autowired
+    CustomerRepository customerRepository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    List<Book> books;
+
+    Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        customer = customerRepository.save(Customer.builder().name("Desk").build());
+        books = new ArrayList<>();
+        for (int i = 0; i < BOOKS; i++) {
+            books.add(bookRepository.save(Book.builder().title("Book " + i).author("Author").isbn("stress-" + i).build()));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        loanRepository.deleteAllInBatch();
+        customerRepository.deleteAllInBatch();
+        bookRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("must never lend the same book twice at the same time")
+    void testConcurrentLoans() throws Exception {
+        AtomicIntegerArray holders = new AtomicIntegerArray(BOOKS);
+        AtomicInteger loans = new AtomicInteger();
+        AtomicInteger doubleLoans = new AtomicInteger();
+        List<Long> doubleLoanedBooks = new CopyOnWriteArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> desks = new ArrayList<>();
+
+        for (int t = 0; t < THREADS; t++) {
+            desks.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS; i++) {
+                    int index = ThreadLocalRandom.current().nextInt(BOOKS);
+                    Loan loan;
+                    try {
+                        loan = loanService.save(Loan.builder().book(books.get(index)).customer(customer)
+                                .loanDate(LocalDate.now()).build());
+                    } catch (BusinessException e) {
+                        continue;
+                    }
+                    loans.incrementAndGet();
+                    if (holders.incrementAndGet(index) > 1) {
+                        doubleLoans.incrementAndGet();
+                    }
+                    doubleLoanedBooks.addAll(jdbcTemplate.queryForList(DOUBLE_LOANED_BOOKS, Long.class));
+                    holders.decrementAndGet(index);
+                    loan.setReturned(true);
+                    loanService.update(loan);
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        for (Future<?> desk : desks) {
+            desk.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertThat(loans.get()).isPositive();
+        assertThat(doubleLoans.get()).isZero();
+        assertThat(doubleLoanedBooks).isEmpty();
+        assertThat(jdbcTemplate.queryForList(DOUBLE_LOANED_BOOKS, Long.class)).isEmpty();
+        assertThat(loanRepository.findActiveLoans()).isEmpty();
+    }
+}
@@ -0,0 +1,468 @@
+package br.com.library.api.service;
+
+import br.com.library.api.audit.AuditJournal;
+import br.com.library.api.audit.AuditRecord;
+import br.com.library.api.changes.ChangeEvent;
+import br.com.library.api.dto.BulkReturnOutcomeDTO;
+import br.com.library.api.dto.BulkReturnResultDTO;
+import br.com.library.api.dto.LoanFilterDTO;
+import br.com.library.api.exception.BusinessException;
+import br.com.library.api.model.Book;
+import br.com.library.api.model.Customer;
+import br.com.library.api.model.Loan;
+import br.com.library.api.popularity.BookPopularity;
+import br.com.library.api.repository.ActiveLoan;
+import br.com.library.api.repository.LoanRepository;
+import br.com.library.api.repository.LoanState;
+import br.com.library.api.service.impl.LoanAdmission;
+import br.com.library.api.service.impl.LoanServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("Test")
+public class LoanServiceTest {
+
+    @MockBean
+    LoanRepository loanRepository;
+
+    EntityManager entityManager = Mockito.mock(EntityManager.class);
+
+    BookPopularity bookPopularity = Mockito.mock(BookPopularity.class);
+
+    CustomerService customerService = Mockito.mock(CustomerService.class);
+
+    TransactionTemplate transactionTemplate = new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class));
+
+    ApplicationEventPublisher eventPublisher = Mockito.mock(ApplicationEventPublisher.class);
+
+    AuditJournal auditJournal = Mockito.mock(AuditJournal.class);
+
+    LoanAdmission loanAdmission;
+
+    LoanService loanService;
+
+    @BeforeEach
+    void setUp() {
+        this.loanAdmission = new LoanAdmission(loanRepository);
+        this.loanService = new LoanServiceImpl(loanRepository, entityManager, loanAdmission, bookPopularity,
+                customerService, transactionTemplate, eventPublisher, auditJournal, 2);
+        Mockito.when(customerService.getOrCreate(Mockito.anyString()))
+                .thenAnswer(invocation -> Customer.builder().id(1L).name(invocation.getArgument(0)).build());
+    }
+
+    @Test
+    @DisplayName("must save a loan")
+    void testSaveLoan() {
+        Book book = Book.builder().id(1L).build();
+        String costumer = "Joaozin";
+
+        Loan savingLoan = Loan.builder()
+                            .id(1L)
+                            .customer(Customer.builder().name(costumer).build())
+                            .book(book)
+                            .loanDate(LocalDate.now()).build();
+
+        Loan savedLoan = Loan.builder()
+                                .id(1L)
+                                .customer(Customer.builder().name(costumer).build())
+                                .book(book)
+                                .loanDate(LocalDate.now()).build();
+
+        Mockito.when(loanRepository.existsByBookAndNotReturned(book)).thenReturn(false);
+        Mockito.when(loanRepository.save(savingLoan)).thenReturn(savedLoan);
+
+        Loan loan = loanService.save(savingLoan);
+
+        assertThat(loan.getId()).isEqualTo(savedLoan.getId());
+        assertThat(loan.getCustomer()).isEqualTo(savedLoan.getCustomer());
+        assertThat(loan.getBook()).isEqualTo(savedLoan.getBook());
+        assertThat(loan.getLoanDate()).isEqualTo(savedLoan.getLoanDate());
+        Mockito.verify(bookPopularity).loaned(1L, savedLoan.getLoanDate());
+        Mockito.verify(customerService).loanMade(savedLoan.getCustomer(), savedLoan.getLoanDate());
+        Mockito.verify(eventPublisher).publishEvent(new ChangeEvent(ChangeEvent.Entity.LOAN, ChangeEvent.Type.CREATED, 1L, null));
+        ArgumentCaptor<AuditRecord> record = ArgumentCaptor.forClass(AuditRecord.class);
+        Mockito.verify(auditJournal).append(record.capture());
+        assertThat(record.getValue().getType()).isEqualTo(AuditRecord.Type.LOAN_CREATED);
+        assertThat(record.getValue().getLoanId()).isEqualTo(1L);
+        assertThat(record.getValue().getCustomer()).isEqualTo("Joaozin");
+    }
+
+    @Test
+    @DisplayName("should throw an error when trying to borrow a book that is already borrowed")
+    void testLoanedBookSave() {
+
+        Book book = Book.builder().id(1L).build();
+        String costumer = "Joaozin";
+
+        Loan savingLoan = Loan.builder()
+                .id(1L)
+                .customer(Customer.builder().name(costumer).build())
+                .book(book)
+                .loanDate(LocalDate.now()).build();
+
+        Mockito.when(loanRepository.existsByBookAndNotReturned(book)).thenReturn(true);
+
+        Throwable exception = catchThrowable(() -> loanService.save(savingLoan));
+
+        assertThat(exception).isInstanceOf(BusinessException.class).hasMessage("Book already loaned");
+
+        Mockito.verify(loanRepository, Mockito.never()).save(savingLoan);
+    }
+
+    @Test
+    @DisplayName("must check the loaned books in memory once the admission is loaded")
+    void testLoanedBookSaveInMemory() {
+        Loan active = createLoan();
+        Mockito.when(loanRepository.findActiveLoans()).thenReturn(Collections.singletonList(activeLoan(1L, 1L)));
+        loanAdmission.afterSingletonsInstantiated();
+
+        Loan savingLoan = Loan.builder().customer(Customer.builder().name("Mariazinha").build()).book(active.getBook()).loanDate(LocalDate.now()).build();
+        Throwable exception = catchThrowable(() -> loanService.save(savingLoan));
+
+        assertThat(exception).isInstanceOf(BusinessException.class).hasMessage("Book already loaned");
+        Mockito.verify(loanRepository, Mockito.never()).existsByBookAndNotReturned(Mockito.any(Book.class));
+        Mockito.verify(loanRepository, Mockito.never()).save(savingLoan);
+    }
+
+    @Test
+    @DisplayName("must lend a book again after its loan is returned")
+    void testLendAfterReturn() {
+        Mockito.when(loanRepository.findActiveLoans()).thenReturn(Collections.singletonList(activeLoan(1L, 1L)));
+        loanAdmission.afterSingletonsInstantiated();
+        Loan returning = createLoan();
+        returning.setReturned(true);
+        Mockito.when(loanRepository.save(returning)).thenReturn(returning);
+        Loan savingLoan = Loan.builder().customer(Customer.builder().name("Mariazinha").build()).book(returning.getBook()).loanDate(LocalDate.now()).build();
+        Loan savedLoan = Loan.builder().id(2L).customer(Customer.builder().name("Mariazinha").build()).book(returning.getBook()).loanDate(LocalDate.now()).build();
+        Mockito.when(loanRepository.save(savingLoan)).thenReturn(savedLoan);
+
+        loanService.update(returning);
+        Loan loan = loanService.save(savingLoan);
+
+        assertThat(loan.getId()).isEqualTo(2L);
+        Mockito.verify(loanRepository, Mockito.never()).existsByBookAndNotReturned(Mockito.any(Book.class));
+    }
+
+    @Test
+    @DisplayName("must not reopen a loan of a book that was loaned again")
+    void testReopenLoanedBook() {
+        Mockito.when(loanRepository.findActiveLoans()).thenReturn(Collections.singletonList(activeLoan(1L, 2L)));
+        loanAdmission.afterSingletonsInstantiated();
+        Loan reopening = createLoan();
+
+        Throwable exception = catchThrowable(() -> loanService.update(reopening));
+
+        assertThat(exception).isInstanceOf(BusinessException.class).hasMessage("Book already loaned");
+        Mockito.verify(loanRepository, Mockito.never()).save(reopening);
+    }
+
+    @Test
+    @DisplayName("must obtain the information of a loan by the ID")
+    void testGetLoanDetails() {
+        Long id = 1L;
+
+        Loan loan = createLoan();
+        loan.setId(id);
+
+        Mockito.when(loanRepository.findById(id)).thenReturn(Optional.of(loan));
+
+        Optional<Loan> result = loanService.getById(id);
+
+        assertThat(result).isPresent();
+        assertThat(result.get().getId()).isEqualTo(id);
+        assertThat(result.get().getCustomer()).isEqualTo(loan.getCustomer());
+        assertThat(result.get().getBook()).isEqualTo(loan.getBook());
+        assertThat(result.get().getLoanDate()).isEqualTo(loan.getLoanDate());
+
+        Mockito.verify(loanRepository).findById(id);
+    }
+
+    @Test
+    @DisplayName("must update a Loan")
+    void testUpdateLoan() {
+        Long id = 1L;
+
+        Loan loan = createLoan();
+        loan.setId(id);
+        loan.setReturned(true);
+
+        Mockito.when(loanRepository.save(loan)).thenReturn(loan);
+
+        Loan updatedLoan =  loanService.update(loan);
+
+        assertThat(updatedLoan.isReturned()).isTrue();
+        Mockito.verify(loanRepository).save(loan);
+        Mockito.verify(eventPublisher).publishEvent(new ChangeEvent(ChangeEvent.Entity.LOAN, ChangeEvent.Type.UPDATED, id, null));
+        ArgumentCaptor<AuditRecord> record = ArgumentCaptor.forClass(AuditRecord.class);
+        Mockito.verify(auditJournal).append(record.capture());
+        assertThat(record.getValue().getType()).isEqualTo(AuditRecord.Type.LOAN_RETURNED);
+        assertThat(record.getValue().getLoanId()).isEqualTo(id);
+    }
+
+    @Test
+    @DisplayName("must keep a committed loan when the audit journal fails")
+    void testSaveWithFailedJournal() {
+        Loan savingLoan = createLoan();
+        Mockito.when(loanRepository.save(savingLoan)).thenReturn(savingLoan);
+        Mockito.doThrow(new IllegalStateException("Audit journal is closed")).when(auditJournal).append(Mockito.any());
+
+        Loan loan = loanService.save(savingLoan);
+
+        assertThat(loan.getId()).isEqualTo(1L);
+        Mockito.verify(eventPublisher).publishEvent(new ChangeEvent(ChangeEvent.Entity.LOAN, ChangeEvent.Type.CREATED, 1L, null));
+    }
+
+    @Test
+    @DisplayName("must filter loan by properties")
+    void testFindLoan() {
+        LoanFilterDTO loanFilterDTO = LoanFilterDTO.builder().isbn("123").customer("Joãozin").build();
+        // scenery
+        Long id = 1L;
+        Loan loan = createLoan();
+        loan.setId(id);
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        List<Loan> loanList = Collections.singletonList(loan);
+
+        Page<Loan> page = new PageImpl<>(loanList, pageRequest, loanList.size());
+        Mockito.when(loanRepository
+                .findByBookIsbnOrCustomer(Mockito.anyString(), Mockito.anyString(), Mockito.any(PageRequest.class)))
+                .thenReturn(page);
+
+        // execution
+        Page<Loan> result  = loanService.find(loanFilterDTO, pageRequest);
+
+        // verification
+        assertThat(result.getTotalElements()).isEqualTo(1);
+        assertThat(result.getContent()).isEqualTo(loanList);
+        assertThat(result.getPageable().getPageNumber()).isZero();
+        assertThat(result.getPageable().getPageSize()).isEqualTo(10);
+    }
+
+    @Test
+    @DisplayName("must filter loan without counting the total")
+    void testFindLoanSlice() {
+        LoanFilterDTO loanFilterDTO = LoanFilterDTO.builder().isbn("123").customer("Joãozin").build();
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        List<Loan> loanList = Collections.singletonList(createLoan());
+        Mockito.when(loanRepository.searchByBookIsbnOrCustomer("123", "Joãozin", pageRequest))
+                .thenReturn(new SliceImpl<>(loanList, pageRequest, false));
+
+        Slice<Loan> result = loanService.findSlice(loanFilterDTO, pageRequest);
+
+        assertThat(result.getContent()).isEqualTo(loanList);
+        assertThat(result.hasNext()).isFalse();
+    }
+
+    @Test
+    @DisplayName("must filter loan after the last seen id")
+    void testFindLoanAfter() {
+        LoanFilterDTO loanFilterDTO = LoanFilterDTO.builder().isbn("123").customer("Joãozin").build();
+        List<Loan> loanList = Collections.singletonList(createLoan());
+        Mockito.when(loanRepository.findByBookIsbnOrCustomerAfter("123", "Joãozin", 10L, PageRequest.of(0, 5)))
+                .thenReturn(new SliceImpl<>(loanList, PageRequest.of(0, 5), true));
+
+        Slice<Loan> result = loanService.findAfter(loanFilterDTO, 10L, 5);
+
+        assertThat(result.getContent()).isEqualTo(loanList);
+        assertThat(result.hasNext()).isTrue();
+    }
+
+    @Test
+    @DisplayName("must export every loan and detach it afterwards")
+    void testExportAll() {
+        Loan loan = createLoan();
+        Mockito.when(loanRepository.streamAll()).thenReturn(Stream.of(loan));
+
+        List<Loan> exported = new ArrayList<>();
+        loanService.exportAll(exported::add);
+
+        assertThat(exported).containsExactly(loan);
+        Mockito.verify(entityManager).detach(loan);
+        Mockito.verify(entityManager).detach(loan.getBook());
+    }
+
+    private ActiveLoan activeLoan(Long bookId, Long loanId) {
+        return new ActiveLoan() {
+            @Override
+            public Long getBookId() {
+                return bookId;
+            }
+
+            @Override
+            public Long getLoanId() {
+                return loanId;
+            }
+        };
+    }
+
+    @Test
+    @DisplayName("must mark a chunk of overdue loans")
+    void testMarkOverdue() {
+        LocalDate dueBefore = LocalDate.now().minusDays(14);
+        List<Long> ids = Arrays.asList(3L, 4L);
+        Mockito.when(loanRepository.findOverdueIdsAfter(dueBefore, 2L, PageRequest.of(0, 2))).thenReturn(ids);
+
+        List<Long> result = loanService.markOverdue(dueBefore, 2L, 2);
+
+        assertThat(result).isEqualTo(ids);
+        Mockito.verify(loanRepository).markOverdue(ids);
+        Mockito.verify(eventPublisher).publishEvent(new ChangeEvent(ChangeEvent.Entity.LOAN, ChangeEvent.Type.UPDATED, 3L, null));
+        Mockito.verify(eventPublisher).publishEvent(new ChangeEvent(ChangeEvent.Entity.LOAN, ChangeEvent.Type.UPDATED, 4L, null));
+    }
+
+    @Test
+    @DisplayName("must not update anything when no loan is overdue")
+    void testMarkOverdueWithoutLoans() {
+        LocalDate dueBefore = LocalDate.now().minusDays(14);
+        Mockito.when(loanRepository.findOverdueIdsAfter(dueBefore, 0L, PageRequest.of(0, 2))).thenReturn(Collections.emptyList());
+
+        List<Long> result = loanService.markOverdue(dueBefore, 0L, 2);
+
+        assertThat(result).isEmpty();
+        Mockito.verify(loanRepository, Mockito.never()).markOverdue(Mockito.anyCollection());
+    }
+
+    @Test
+    @DisplayName("must return loans by id in batches, reporting each id")
+    void testReturnLoansByIds() {
+        Mockito.when(loanRepository.findStatesByIdIn(Arrays.asList(1L, 2L)))
+                .thenReturn(Arrays.asList(loanState(1L, 10L, "isbn-10", false), loanState(2L, 20L, "isbn-20", true)));
+        Mockito.when(loanRepository.findStatesByIdIn(Collections.singletonList(3L))).thenReturn(Collections.emptyList());
+
+        BulkReturnResultDTO result = loanService.returnLoans(Arrays.asList(1L, 2L, 3L, 1L), null);
+
+        assertThat(result.getRequested()).isEqualTo(3);
+        assertThat(result.getReturned()).isEqualTo(1);
+        assertThat(result.getOutcomes()).containsExactly(
+                new BulkReturnOutcomeDTO(1L, "isbn-10", BulkReturnOutcomeDTO.Status.RETURNED),
+                new BulkReturnOutcomeDTO(2L, "isbn-20", BulkReturnOutcomeDTO.Status.ALREADY_RETURNED),
+                new BulkReturnOutcomeDTO(3L, null, BulkReturnOutcomeDTO.Status.NOT_FOUND));
+        Mockito.verify(loanRepository).markReturned(Collections.singletonList(1L));
+        Mockito.verify(loanRepository, Mockito.times(1)).markReturned(Mockito.anyCollection());
+        Mockito.verify(customerService).loansChanged(Collections.singleton(7L));
+        Mockito.verify(eventPublisher).publishEvent(new ChangeEvent(ChangeEvent.Entity.LOAN, ChangeEvent.Type.UPDATED, 1L, null));
+
+        ArgumentCaptor<AuditRecord> record = ArgumentCaptor.forClass(AuditRecord.class);
+        Mockito.verify(auditJournal).append(record.capture());
+        assertThat(record.getValue().getType()).isEqualTo(AuditRecord.Type.LOAN_RETURNED);
+        assertThat(record.getValue().getLoanId()).isEqualTo(1L);
+        assertThat(record.getValue().getBookId()).isEqualTo(10L);
+        assertThat(record.getValue().getIsbn()).isEqualTo("isbn-10");
+        assertThat(record.getValue().getCustomer()).isEqualTo("Joaozin");
+    }
+
+    @Test
+    @DisplayName("must return the open loans of the isbns and free their books")
+    void testReturnLoansByIsbns() {
+        Mockito.when(loanRepository.findActiveLoans()).thenReturn(Collections.singletonList(activeLoan(1L, 5L)));
+        loanAdmission.afterSingletonsInstantiated();
+        Mockito.when(loanRepository.findActiveStatesByIsbnIn(Arrays.asList("123", "456")))
+                .thenReturn(Collections.singletonList(loanState(5L, 1L, "123", false)));
+
+        BulkReturnResultDTO result = loanService.returnLoans(null, Arrays.asList("123", "456"));
+
+        assertThat(result.getReturned()).isEqualTo(1);
+        assertThat(result.getOutcomes()).containsExactly(
+                new BulkReturnOutcomeDTO(5L, "123", BulkReturnOutcomeDTO.Status.RETURNED),
+                new BulkReturnOutcomeDTO(null, "456", BulkReturnOutcomeDTO.Status.NOT_LOANED));
+        Mockito.verify(loanRepository).markReturned(Collections.singletonList(5L));
+
+        Loan savingLoan = Loan.builder().customer(Customer.builder().name("Mariazinha").build()).book(Book.builder().id(1L).build()).loanDate(LocalDate.now()).build();
+        Mockito.when(loanRepository.save(savingLoan)).thenReturn(savingLoan);
+        assertThat(catchThrowable(() -> loanService.save(savingLoan))).isNull();
+    }
+
+    @Test
+    @DisplayName("must free every returned book when the audit journal fails")
+    void testReturnLoansWithFailedJournal() {
+        Mockito.when(loanRepository.findActiveLoans()).thenReturn(Arrays.asList(activeLoan(1L, 5L), activeLoan(2L, 6L)));
+        loanAdmission.afterSingletonsInstantiated();
+        Mockito.when(loanRepository.findStatesByIdIn(Arrays.asList(5L, 6L)))
+                .thenReturn(Arrays.asList(loanState(5L, 1L, "123", false), loanState(6L, 2L, "456", false)));
+        Mockito.doThrow(new IllegalStateException("Audit journal is closed")).when(auditJournal).append(Mockito.any());
+
+        BulkReturnResultDTO result = loanService.returnLoans(Arrays.asList(5L, 6L), null);
+
+        assertThat(result.getReturned()).isEqualTo(2);
+        Mockito.verify(auditJournal, Mockito.times(2)).append(Mockito.any());
+        for (long bookId = 1; bookId <= 2; bookId++) {
+            Loan savingLoan = Loan.builder().customer(Customer.builder().name("Mariazinha").build())
+                    .book(Book.builder().id(bookId).build()).loanDate(LocalDate.now()).build();
+            Mockito.when(loanRepository.save(savingLoan)).thenReturn(savingLoan);
+            assertThat(catchThrowable(() -> loanService.save(savingLoan))).isNull();
+        }
+    }
+
+    private LoanState loanState(Long loanId, Long bookId, String isbn, Boolean returned) {
+        return new LoanState() {
+            @Override
+            public Long getLoanId() {
+                return loanId;
+            }
+
+            @Override
+            public Long getBookId() {
+                return bookId;
+            }
+
+            @Override
+            public String getIsbn() {
+                return isbn;
+            }
+
+            @Override
+            public Long getCustomerId() {
+                return 7L;
+            }
+
+            @Override
+            public String getCustomer() {
+                return "Joaozin";
+            }
+
+            @Override
+            public Boolean getReturned() {
+                return returned;
+            }
+        };
+    }
+
+    public static Loan createLoan() {
+        Book book = Book.builder().id(1L).build();
+        String costumer = "Joaozin";
+
+        return Loan.builder()
+                .id(1L)
+                .customer(Customer.builder().name(costumer).build())
+                .book(book)
+                .loanDate(LocalDate.now()).build();
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.library.api.service;
+
+import br.com.library.api.service.impl.OverdueLoanJob;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mockito;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("Test")
+public class OverdueLoanJobTest {
+
+    @MockBean
+    LoanService loanService;
+
+    @Test
+    @DisplayName("must walk the loans chunk by chunk from the last marked id")
+    void testMarkOverdueInChunks() {
+        LocalDate dueBefore = LocalDate.now().minusDays(14);
+        Mockito.when(loanService.markOverdue(dueBefore, 0L, 2)).thenReturn(Arrays.asList(1L, 5L));
+        Mockito.when(loanService.markOverdue(dueBefore, 5L, 2)).thenReturn(Arrays.asList(6L, 9L));
+        Mockito.when(loanService.markOverdue(dueBefore, 9L, 2)).thenReturn(Collections.singletonList(12L));
+
+        int marked = new OverdueLoanJob(loanService, 14, 2).markOverdue(dueBefore);
+
+        assertThat(marked).isEqualTo(5);
+        Mockito.verify(loanService, Mockito.times(3)).markOverdue(Mockito.eq(dueBefore), Mockito.anyLong(), Mockito.eq(2));
+    }
+
+    @Test
+    @DisplayName("must use the configured due period")
+    void testRunUsesDuePeriod() {
+        LocalDate dueBefore = LocalDate.now().minusDays(30);
+        Mockito.when(loanService.markOverdue(dueBefore, 0L, 100)).thenReturn(Collections.emptyList());
+
+        new OverdueLoanJob(loanService, 30, 100).run();
+
+        Mockito.verify(loanService).markOverdue(dueBefore, 0L, 100);
+    }
+}
@@ -0,0 +1,148 @@
+package br.com.library.api.service;
+
+import br.com.library.api.LibraryApiApplication;
+import br.com.library.api.datasource.ReplicaLagPolicy;
+import br.com.library.api.dto.LoanFilterDTO;
+import br.com.library.api.model.Book;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.servlet.http.Cookie;
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ExtendWith(SpringExtension.class)
+@ActiveProfiles("test")
+@SpringBootTest(classes = {LibraryApiApplication.class, ReadWriteRoutingTest.ReplicaSchemaConfig.class}, properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "library.datasource.replica.url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "library.datasource.replica.username=sa",
+        "library.datasource.replica.read-your-writes=300ms"})
+public class ReadWriteRoutingTest {
+
+    @Autowired
+    BookService bookService;
+
+    @Autowired
+    LoanService loanService;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    DataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    DataSource replicaDataSource;
+
+    JdbcTemplate primary;
+
+    JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+        for (JdbcTemplate database : new JdbcTemplate[]{primary, replica}) {
+            database.update("delete from LOAN");
+            database.update("delete from CUSTOMER");
+            database.update("delete from BOOK");
+        }
+    }
+
+    @Test
+    @DisplayName("must serve read-only service methods from the replica")
+    void testReadsGoToReplica() {
+        replica.update("insert into BOOK (BOOK_ID, BOOK_TITLE, BOOK_AUTHOR, BOOK_ISBN) values (1000, 'Clean Code', 'Robert C. Martin', 'replica-only')");
+        replica.update("insert into CUSTOMER (CUSTOMER_ID, CUSTOMER_NAME) values (1000, 'Joãozin')");
+        replica.update("insert into LOAN (LOAN_ID, CUSTOMER_ID, BOOK_ID, LOAN_DATE, LOAN_RETURNED, LOAN_OVERDUE)"
+                + " values (1000, 1000, 1000, current_date, false, false)");
+
+        assertThat(bookService.getBookByIsbn("replica-only")).isPresent();
+        assertThat(loanService.find(new LoanFilterDTO("replica-only", null), PageRequest.of(0, 10)).getContent()).hasSize(1);
+        assertThat(primary.queryForObject("select count(*) from BOOK", Long.class)).isZero();
+    }
+
+    @Test
+    @DisplayName("must write to the primary and read it back from there within the writer's lag window")
+    void testReadYourWrites() {
+        MockHttpServletResponse written = request(new MockHttpServletRequest());
+        Book saved = bookService.save(Book.builder().title("Clean Code").author("Robert C. Martin").isbn("primary-only").build());
+
+        assertThat(primary.queryForObject("select count(*) from BOOK where BOOK_ISBN = 'primary-only'", Long.class)).isEqualTo(1);
+        assertThat(replica.queryForObject("select count(*) from BOOK", Long.class)).isZero();
+        assertThat(findPrimaryOnly()).extracting(Book::getId).containsExactly(saved.getId());
+        Cookie lastWrite = written.getCookie(ReplicaLagPolicy.COOKIE);
+        assertThat(lastWrite).isNotNull();
+        assertThat(lastWrite.getMaxAge()).isEqualTo(1);
+
+        MockHttpServletRequest writer = new MockHttpServletRequest();
+        writer.setCookies(lastWrite);
+        request(writer);
+        assertThat(findPrimaryOnly()).extracting(Book::getId).containsExactly(saved.getId());
+
+        MockHttpServletRequest stale = new MockHttpServletRequest();
+        stale.setCookies(new Cookie(ReplicaLagPolicy.COOKIE, String.valueOf(Long.parseLong(lastWrite.getValue()) - 1000)));
+        request(stale);
+        assertThat(findPrimaryOnly()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("must keep serving other clients from the replica after someone else's write")
+    void testOtherClientsReadFromReplica() {
+        request(new MockHttpServletRequest());
+        bookService.save(Book.builder().title("Clean Code").author("Robert C. Martin").isbn("primary-only").build());
+
+        MockHttpServletResponse other = request(new MockHttpServletRequest());
+        assertThat(findPrimaryOnly()).isEmpty();
+        assertThat(other.getCookie(ReplicaLagPolicy.COOKIE)).isNull();
+
+        RequestContextHolder.resetRequestAttributes();
+        assertThat(findPrimaryOnly()).isEmpty();
+    }
+
+    private List<Book> findPrimaryOnly() {
+        return bookService.findAfter(Book.builder().isbn("primary-only").build(), 0L, 10).getContent();
+    }
+
+    private static MockHttpServletResponse request(MockHttpServletRequest request) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+        return response;
+    }
+
+    // not a @TestConfiguration, so benchmarks scanning the test classes do not pick it up
+    static class ReplicaSchemaConfig {
+
+        @Bean
+        FlywayMigrationStrategy migrateReplicaToo(@Qualifier("replicaDataSource") DataSource replicaDataSource) {
+            return flyway -> {
+                flyway.migrate();
+                Flyway.configure().configuration(flyway.getConfiguration()).dataSource(replicaDataSource).load().migrate();
+            };
+        }
+    }
+}
@@ -1,32 +0,0 @@
-package br.com.library.api.model;
-
-import lombok.*;
-
-import javax.persistence.*;
-import java.util.List;
-
-@Data
-@AllArgsConstructor
-@NoArgsConstructor
-@Builder
-@Entity
-@Table(name = "Book")
-public class Book {
-
-    @Id
-    @Column(name = "BOOK_ID")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
-    @Column(name = "BOOK_TITLE")
-    private String title;
-
-    @Column(name = "BOOK_AUTHOR")
-    private String author;
-
-    @Column(name = "BOOK_ISBN")
-    private String isbn;
-
-    @OneToMany(mappedBy = "book", fetch = FetchType.LAZY)
-    List<Loan> loans;
-}
@@ -1,45 +0,0 @@
-package br.com.library.api.service.impl;
-
-import br.com.library.api.dto.LoanFilterDTO;
-import br.com.library.api.exception.BusinessException;
-import br.com.library.api.model.Loan;
-import br.com.library.api.repository.LoanRepository;
-import br.com.library.api.service.LoanService;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.stereotype.Service;
-
-import java.util.Optional;
-
-@Service
-public class LoanServiceImpl implements LoanService {
-
-    private final LoanRepository loanRepository;
-
-    public LoanServiceImpl(LoanRepository loanRepository) {
-        this.loanRepository = loanRepository;
-    }
-
-    @Override
-    public Loan save(Loan loan) {
-        if(loanRepository.existsByBookAndNotReturned(loan.getBook())) {
-            throw new BusinessException("Book already loaned");
-        }
-        return loanRepository.save(loan);
-    }
-
-    @Override
-    public Optional<Loan> getById(Long id) {
-        return loanRepository.findById(id);
-    }
-
-    @Override
-    public Loan update(Loan loan) {
-        return loanRepository.save(loan);
-    }
-
-    @Override
-    public Page<Loan> find(LoanFilterDTO dto, Pageable pageable) {
-        return loanRepository.findByBookIsbnOrCustomer(dto.getIsbn(), dto.getCustomer(), pageable);
-    }
-}